@@ -13,6 +13,8 @@ CREATE TABLE IF NOT EXISTS customers (
     phone INT UNIQUE,
     uid VARCHAR(36) UNIQUE,
     password VARCHAR(255) NOT NULL,
+    INDEX idx_customers_first_name (first_name, id),
+    INDEX idx_customers_last_name (last_name, id),
     FOREIGN KEY (uid) REFERENCES auth_users(id) ON UPDATE CASCADE ON DELETE CASCADE
 );
 
@@ -40,10 +42,17 @@ CREATE TABLE IF NOT EXISTS transactions (
     toID BIGINT NULL,
     amount BIGINT NOT NULL,
     UNIQUE (trans_id),
+    INDEX idx_transactions_from (fromID, trans_id),
+    INDEX idx_transactions_to (toID, trans_id),
     FOREIGN KEY (fromID) REFERENCES account(account_id) ON UPDATE CASCADE ON DELETE CASCADE,
     FOREIGN KEY (toID) REFERENCES account(account_id) ON UPDATE CASCADE ON DELETE CASCADE
 );
 
+CREATE TABLE IF NOT EXISTS journal_checkpoint (
+    id TINYINT PRIMARY KEY,
+    sequence BIGINT NOT NULL
+);
+
 DELIMITER //
 CREATE PROCEDURE TransferFunds(
     IN fromAccountId BIGINT,
@@ -51,18 +60,24 @@ CREATE PROCEDURE TransferFunds(
     IN transferAmount BIGINT
 )
 BEGIN
+    DECLARE fromBalance BIGINT DEFAULT NULL;
+    DECLARE toAccount BIGINT DEFAULT NULL;
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
     START TRANSACTION;
     
-    SELECT balance INTO @fromBalance FROM account WHERE account_id = fromAccountId FOR UPDATE;
-    IF @fromBalance IS NULL OR @fromBalance < transferAmount THEN
-        ROLLBACK;
+    SELECT balance INTO fromBalance FROM account WHERE account_id = fromAccountId FOR UPDATE;
+    IF fromBalance IS NULL OR fromBalance < transferAmount THEN
         SIGNAL SQLSTATE '45000'
         SET MESSAGE_TEXT = 'Insufficient balance or invalid source account.';
     END IF;
 
-    SELECT account_id INTO @toAccount FROM account WHERE account_id = toAccountId;
-    IF @toAccount IS NULL THEN
-        ROLLBACK;
+    SELECT account_id INTO toAccount FROM account WHERE account_id = toAccountId;
+    IF toAccount IS NULL THEN
         SIGNAL SQLSTATE '45000'
         SET MESSAGE_TEXT = 'Invalid destination account.';
     END IF;
@@ -98,8 +113,18 @@ CREATE PROCEDURE TakeLoan(
     IN branchId INT
 )
 BEGIN
-    SELECT id INTO @customerIdExists FROM customers WHERE id = customerId;
-    IF @customerIdExists IS NULL THEN
+    DECLARE customerIdExists BIGINT DEFAULT NULL;
+    DECLARE loanAccount BIGINT DEFAULT NULL;
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
+    START TRANSACTION;
+
+    SELECT id INTO customerIdExists FROM customers WHERE id = customerId;
+    IF customerIdExists IS NULL THEN
         SIGNAL SQLSTATE '45000'
         SET MESSAGE_TEXT = 'Invalid customer ID.';
     END IF;
@@ -107,14 +132,16 @@ BEGIN
     INSERT INTO loans (cust_id, amount, branch_id)
     VALUES (customerId, loanAmount, branchId);
 
-    SELECT account_id INTO @loanAccount FROM account WHERE customer_id = customerId AND type = 'LOAN';
-    IF @loanAccount IS NOT NULL THEN
-        UPDATE account SET balance = balance + loanAmount WHERE account_id = @loanAccount;
-        INSERT INTO transactions (type, toID, amount) VALUES ('loan_deposit', @loanAccount, loanAmount);
+    SELECT account_id INTO loanAccount FROM account WHERE customer_id = customerId AND type = 'LOAN';
+    IF loanAccount IS NOT NULL THEN
+        UPDATE account SET balance = balance + loanAmount WHERE account_id = loanAccount;
+        INSERT INTO transactions (type, toID, amount) VALUES ('loan_deposit', loanAccount, loanAmount);
     ELSE
         SIGNAL SQLSTATE '45000'
         SET MESSAGE_TEXT = 'No LOAN account found for the customer.';
     END IF;
+
+    COMMIT;
 END //
 DELIMITER ;
 
@@ -0,0 +1,210 @@
+package onlinebankingsystem.bench;
+
+import onlinebankingsystem.DatabaseService;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+
+public final class BenchmarkDatabase {
+    public static final long INITIAL_BALANCE = 1_000_000_000_000L;
+    public static final int FIRST_SEEDED_PHONE = 100_000_000;
+
+    private static final int INSERT_BATCH_SIZE = 1_000;
+    private static final long SEED = 42L;
+
+    private BenchmarkDatabase() {
+    }
+
+    public static Properties prepare(int accounts, int transactionsPerAccount) throws IOException, SQLException {
+        Properties bench = loadBenchProperties();
+        String serverUrl = bench.getProperty("bench.serverURL", "jdbc:mysql://localhost:3306/");
+        String database = bench.getProperty("bench.database", "online_banking_bench");
+        String options = bench.getProperty("bench.urlOptions", "rewriteBatchedStatements=true");
+        String user = bench.getProperty("bench.USER", bench.getProperty("db.USER"));
+        String password = bench.getProperty("bench.PASSWORD", bench.getProperty("db.PASSWORD"));
+        String databaseUrl = serverUrl + database + (options.isEmpty() ? "" : "?" + options);
+
+        boolean reuse = Boolean.parseBoolean(bench.getProperty("bench.reuse", "true"));
+        if (!reuse || !isSeeded(databaseUrl, user, password, accounts, transactionsPerAccount)) {
+            try (Connection conn = DriverManager.getConnection(serverUrl + (options.isEmpty() ? "" : "?" + options), user, password)) {
+                loadSchema(conn, database, Paths.get(bench.getProperty("bench.schema", "BankDBS.sql")));
+            }
+            try (Connection conn = DriverManager.getConnection(databaseUrl, user, password)) {
+                seed(conn, accounts, transactionsPerAccount);
+            }
+        }
+
+        Properties props = new Properties();
+        props.putAll(bench);
+        props.setProperty("db.URL", databaseUrl);
+        props.setProperty("db.USER", user);
+        props.setProperty("db.PASSWORD", password);
+        return props;
+    }
+
+    public static DatabaseService open(int accounts, int transactionsPerAccount) throws IOException, SQLException {
+        return new DatabaseService(prepare(accounts, transactionsPerAccount));
+    }
+
+    public static int nextFreePhone(Properties props) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(
+                props.getProperty("db.URL"), props.getProperty("db.USER"), props.getProperty("db.PASSWORD"));
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(phone), 0) FROM customers")) {
+            rs.next();
+            return Math.max(FIRST_SEEDED_PHONE, rs.getInt(1)) + 1;
+        }
+    }
+
+    private static Properties loadBenchProperties() throws IOException {
+        Properties props = DatabaseService.loadDatabaseProperties();
+        Path benchConfig = Paths.get(System.getProperty("bench.config", "bench.properties"));
+        if (Files.exists(benchConfig)) {
+            try (InputStream in = new FileInputStream(benchConfig.toFile())) {
+                props.load(in);
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("bench.")) {
+                props.setProperty(key, System.getProperty(key));
+            }
+        }
+        return props;
+    }
+
+    private static boolean isSeeded(String url, String user, String password, int accounts, int transactionsPerAccount) {
+        try (Connection conn = DriverManager.getConnection(url, user, password);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT accounts, transactions_per_account FROM bench_meta")) {
+            return rs.next() && rs.getInt(1) == accounts && rs.getInt(2) == transactionsPerAccount;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    static void loadSchema(Connection conn, String database, Path schemaFile) throws IOException, SQLException {
+        String delimiter = ";";
+        StringBuilder statement = new StringBuilder();
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String line : Files.readAllLines(schemaFile, StandardCharsets.UTF_8)) {
+                String trimmed = line.trim();
+                if (trimmed.toUpperCase().startsWith("DELIMITER ")) {
+                    delimiter = trimmed.substring("DELIMITER ".length()).trim();
+                    continue;
+                }
+                statement.append(line.replace("online_banking_system", database)).append('\n');
+
+                String pending = statement.toString().trim();
+                if (pending.endsWith(delimiter)) {
+                    String sql = pending.substring(0, pending.length() - delimiter.length()).trim();
+                    if (!sql.isEmpty()) {
+                        stmt.execute(sql);
+                    }
+                    statement.setLength(0);
+                }
+            }
+        }
+    }
+
+    private static void seed(Connection conn, int accounts, int transactionsPerAccount) throws SQLException {
+        long started = System.nanoTime();
+        long[] balances = new long[accounts + 1];
+        for (int i = 1; i <= accounts; i++) {
+            balances[i] = INITIAL_BALANCE;
+        }
+        Random random = new Random(SEED);
+        long totalTransactions = (long) accounts * transactionsPerAccount;
+        for (long t = 0; t < totalTransactions; t++) {
+            int from = 1 + random.nextInt(accounts);
+            int to = 1 + random.nextInt(accounts);
+            long amount = 1 + random.nextInt(100);
+            balances[from] -= amount;
+            balances[to] += amount;
+        }
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement authStmt = conn.prepareStatement("INSERT INTO auth_users (id) VALUES (?)");
+             PreparedStatement customerStmt = conn.prepareStatement(
+                     "INSERT INTO customers (id, first_name, last_name, phone, uid, password) VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement accountStmt = conn.prepareStatement(
+                     "INSERT INTO account (account_id, customer_id, balance, status, type) VALUES (?, ?, ?, 'active', 'savings')")) {
+            for (int i = 1; i <= accounts; i++) {
+                String uid = UUID.randomUUID().toString();
+                authStmt.setString(1, uid);
+                authStmt.addBatch();
+
+                customerStmt.setLong(1, i);
+                customerStmt.setString(2, "Bench" + i);
+                customerStmt.setString(3, "Customer" + i);
+                customerStmt.setInt(4, FIRST_SEEDED_PHONE + i);
+                customerStmt.setString(5, uid);
+                customerStmt.setString(6, "password");
+                customerStmt.addBatch();
+
+                accountStmt.setLong(1, i);
+                accountStmt.setLong(2, i);
+                accountStmt.setLong(3, balances[i]);
+                accountStmt.addBatch();
+
+                if (i % INSERT_BATCH_SIZE == 0 || i == accounts) {
+                    authStmt.executeBatch();
+                    customerStmt.executeBatch();
+                    accountStmt.executeBatch();
+                    conn.commit();
+                }
+            }
+        }
+
+        try (PreparedStatement depositStmt = conn.prepareStatement(
+                "INSERT INTO transactions (type, toID, amount) VALUES ('initial_deposit', ?, ?)")) {
+            for (int i = 1; i <= accounts; i++) {
+                depositStmt.setLong(1, i);
+                depositStmt.setLong(2, INITIAL_BALANCE);
+                depositStmt.addBatch();
+                if (i % INSERT_BATCH_SIZE == 0 || i == accounts) {
+                    depositStmt.executeBatch();
+                    conn.commit();
+                }
+            }
+        }
+
+        random = new Random(SEED);
+        try (PreparedStatement txStmt = conn.prepareStatement(
+                "INSERT INTO transactions (type, fromID, toID, amount) VALUES ('transfer', ?, ?, ?)")) {
+            for (long t = 1; t <= totalTransactions; t++) {
+                txStmt.setLong(1, 1 + random.nextInt(accounts));
+                txStmt.setLong(2, 1 + random.nextInt(accounts));
+                txStmt.setLong(3, 1 + random.nextInt(100));
+                txStmt.addBatch();
+                if (t % INSERT_BATCH_SIZE == 0 || t == totalTransactions) {
+                    txStmt.executeBatch();
+                    conn.commit();
+                }
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE bench_meta (accounts INT NOT NULL, transactions_per_account INT NOT NULL)");
+            stmt.execute("INSERT INTO bench_meta VALUES (" + accounts + ", " + transactionsPerAccount + ")");
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+
+        System.out.printf("Seeded %d accounts and %d transactions in %.1f s%n",
+                accounts, totalTransactions, (System.nanoTime() - started) / 1_000_000_000.0);
+    }
+}
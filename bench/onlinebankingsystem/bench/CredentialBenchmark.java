@@ -0,0 +1,72 @@
+package onlinebankingsystem.bench;
+
+import onlinebankingsystem.CredentialService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class CredentialBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"100000", "210000", "600000"})
+    public int iterations;
+
+    @Param({"4"})
+    public int threads;
+
+    @Param({"64"})
+    public int maxQueue;
+
+    private CredentialService credentials;
+    private String stored;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Properties props = new Properties();
+        props.setProperty("credentials.iterations", Integer.toString(iterations));
+        props.setProperty("credentials.threads", Integer.toString(threads));
+        props.setProperty("credentials.maxQueue", Integer.toString(maxQueue));
+        credentials = new CredentialService(null, props);
+        stored = credentials.hash(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("rejected=" + credentials.getRejectedCount());
+        credentials.close();
+    }
+
+    @Benchmark
+    public boolean verifyInline() {
+        return credentials.matches(PASSWORD, stored);
+    }
+
+    @Benchmark
+    public boolean verifyThroughExecutor() throws Exception {
+        try {
+            return credentials.matchesAsync(PASSWORD, stored).get();
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package onlinebankingsystem.bench;
+
+import onlinebankingsystem.Customer;
+import onlinebankingsystem.DatabaseService;
+import onlinebankingsystem.Transaction;
+import onlinebankingsystem.TransferRequest;
+import onlinebankingsystem.TransferResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class DatabaseServiceBenchmark {
+    private static final int TRANSFER_BATCH_SIZE = 100;
+
+    @Param({"1000", "10000"})
+    public int accounts;
+
+    @Param({"10", "100"})
+    public int transactionsPerAccount;
+
+    private DatabaseService db;
+    private AtomicInteger nextPhone;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Properties props = BenchmarkDatabase.prepare(accounts, transactionsPerAccount);
+        db = new DatabaseService(props);
+        nextPhone = new AtomicInteger(BenchmarkDatabase.nextFreePhone(props));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("Pool: " + db.getConnectionPool().getStatistics());
+        db.close();
+    }
+
+    private long randomAccount() {
+        return 1 + ThreadLocalRandom.current().nextInt(accounts);
+    }
+
+    @Benchmark
+    public boolean transferFunds() {
+        return db.transferFunds(randomAccount(), randomAccount(), 1L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSFER_BATCH_SIZE)
+    public List<TransferResult> transferFundsBatch() {
+        List<TransferRequest> requests = new ArrayList<>(TRANSFER_BATCH_SIZE);
+        for (int i = 0; i < TRANSFER_BATCH_SIZE; i++) {
+            requests.add(new TransferRequest(randomAccount(), randomAccount(), 1L));
+        }
+        return db.transferFundsBatch(requests);
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsByAccountId() {
+        return db.getTransactionsByAccountId(randomAccount());
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsPage() {
+        return db.getTransactionsPage(randomAccount(), null, 100);
+    }
+
+    @Benchmark
+    public boolean registerCustomerWithInitialBalance() {
+        int phone = nextPhone.getAndIncrement();
+        return db.registerCustomerWithInitialBalance("Bench", "Signup" + phone, phone, "password", 100);
+    }
+
+    @Benchmark
+    public List<Customer> getAllCustomers() {
+        return db.getAllCustomers();
+    }
+
+    @Benchmark
+    public Customer getCustomerById() {
+        return db.getCustomerById(randomAccount());
+    }
+}
@@ -0,0 +1,69 @@
+package onlinebankingsystem.bench;
+
+import onlinebankingsystem.DatabaseService;
+import onlinebankingsystem.LedgerEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class LedgerBenchmark {
+    @Param({"1000", "100000"})
+    public int accounts;
+
+    @Param({"10"})
+    public int transactionsPerAccount;
+
+    @Param({"procedure", "coalesced", "ledger"})
+    public String mode;
+
+    private DatabaseService db;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Properties props = BenchmarkDatabase.prepare(accounts, transactionsPerAccount);
+        props.setProperty("ledger.enabled", String.valueOf("ledger".equals(mode)));
+        props.setProperty("transfer.coalesce.enabled", String.valueOf("coalesced".equals(mode)));
+        db = new DatabaseService(props);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        LedgerEngine ledger = db.getLedger();
+        if (ledger != null) {
+            long started = System.nanoTime();
+            boolean drained = ledger.awaitPersisted(TimeUnit.MINUTES.toMillis(5));
+            System.out.printf("Ledger drained=%s in %.1f ms: %s%n",
+                    drained, (System.nanoTime() - started) / 1_000_000.0, ledger.getStatistics());
+        }
+        db.close();
+    }
+
+    private long randomAccount() {
+        return 1 + ThreadLocalRandom.current().nextInt(accounts);
+    }
+
+    @Benchmark
+    public boolean transferFunds() {
+        return db.transferFunds(randomAccount(), randomAccount(), 1L);
+    }
+}
@@ -0,0 +1,78 @@
+package onlinebankingsystem.bench;
+
+import onlinebankingsystem.DatabaseService;
+import onlinebankingsystem.Loan;
+import onlinebankingsystem.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class PreparedStatementBenchmark {
+    @Param({"1000"})
+    public int accounts;
+
+    @Param({"10"})
+    public int transactionsPerAccount;
+
+    @Param({"false", "true"})
+    public String cachePrepStmts;
+
+    @Param({"false", "true"})
+    public String useServerPrepStmts;
+
+    private DatabaseService db;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Properties props = BenchmarkDatabase.prepare(accounts, transactionsPerAccount);
+        props.setProperty("db.driver.cachePrepStmts", cachePrepStmts);
+        props.setProperty("db.driver.cacheCallableStmts", cachePrepStmts);
+        props.setProperty("db.driver.useServerPrepStmts", useServerPrepStmts);
+        db = new DatabaseService(props);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    private long randomAccount() {
+        return 1 + ThreadLocalRandom.current().nextInt(accounts);
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsPage() {
+        return db.getTransactionsPage(randomAccount(), null, 20);
+    }
+
+    @Benchmark
+    public List<Loan> getLoansByCustomerId() {
+        return db.getLoansByCustomerId(randomAccount());
+    }
+
+    @Benchmark
+    public boolean transferFunds() {
+        return db.transferFunds(randomAccount(), randomAccount(), 1L);
+    }
+}
@@ -0,0 +1,50 @@
+package onlinebankingsystem.bench;
+
+import onlinebankingsystem.Transaction;
+import onlinebankingsystem.TransactionBlock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TransactionFootprint {
+    private static final String[] TYPES = {"transfer", "loan_deposit", "initial_deposit"};
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long baseline = usedAfterGc();
+        List<Transaction> objects = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            objects.add(new Transaction(1_000_000L + i, new String(TYPES[i % TYPES.length]),
+                    1_000L + i % 5_000, 2_000L + i % 7_000, 1_000L + i));
+        }
+        long objectBytes = usedAfterGc() - baseline;
+        System.out.printf("List<Transaction>: %,d bytes (%.1f bytes/row)%n", objectBytes, (double) objectBytes / objects.size());
+        objects = null;
+
+        baseline = usedAfterGc();
+        TransactionBlock block = new TransactionBlock(rows);
+        for (int i = 0; i < rows; i++) {
+            block.add(1_000_000L + i, new String(TYPES[i % TYPES.length]),
+                    1_000L + i % 5_000, 2_000L + i % 7_000, 1_000L + i);
+        }
+        long blockBytes = usedAfterGc() - baseline;
+
+        System.out.printf("TransactionBlock:  %,d bytes (%.1f bytes/row, estimated %,d)%n",
+                blockBytes, (double) blockBytes / block.size(), block.estimatedBytes());
+        System.out.printf("ratio: %.1fx%n", (double) objectBytes / blockBytes);
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -3,6 +3,9 @@ module OnlineBankingSystem {
     requires javafx.fxml;
     requires java.sql;
     requires java.desktop;
+    requires java.management;
+    requires jdk.httpserver;
+    requires jdk.unsupported;
 
 
     exports onlinebankingsystem;
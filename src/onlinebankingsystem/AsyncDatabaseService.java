@@ -0,0 +1,233 @@
+package onlinebankingsystem;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class AsyncDatabaseService {
+    private static final Log LOG = Log.get(AsyncDatabaseService.class);
+
+    private final DatabaseService db;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final AtomicLong generation = new AtomicLong();
+    private final ReadOnlyIntegerWrapper inFlight = new ReadOnlyIntegerWrapper(0);
+
+    public AsyncDatabaseService(DatabaseService db) {
+        this(db, db.getConnectionPool().getMaxSize());
+    }
+
+    public AsyncDatabaseService(DatabaseService db, int maxConcurrency) {
+        this.db = db;
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        this.executor = VirtualThreads.newPerTaskExecutor("db-async", maxConcurrency);
+    }
+
+    public DatabaseService getDatabaseService() {
+        return db;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return submit(task, new CompletableFuture<>());
+    }
+
+    public <T> CompletableFuture<T> submitWrite(Supplier<T> task) {
+        return submit(task, new WriteFuture<>());
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task, CompletableFuture<T> result) {
+        pending.add(result);
+        inFlightCount.incrementAndGet();
+        updateInFlight();
+
+        Future<?> work = executor.submit(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                result.cancel(false);
+                return;
+            }
+            try {
+                if (!result.isDone()) {
+                    result.complete(task.get());
+                }
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                permits.release();
+            }
+        });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                work.cancel(true);
+            }
+            pending.remove(result);
+            inFlightCount.decrementAndGet();
+            updateInFlight();
+        });
+        return result;
+    }
+
+    public <T> void onFx(CompletableFuture<T> future, Consumer<? super T> onSuccess) {
+        onFx(future, onSuccess, error -> LOG.error("Background database task failed", error));
+    }
+
+    public <T> void onFx(CompletableFuture<T> future, Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        long submittedIn = generation.get();
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            Platform.runLater(() -> {
+                if (submittedIn != generation.get() && !(future instanceof WriteFuture)) {
+                    return;
+                }
+                if (error == null) {
+                    onSuccess.accept(value);
+                } else {
+                    onError.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                }
+            });
+        });
+    }
+
+    public <T> CompletableFuture<T> call(Supplier<T> task, Consumer<? super T> onSuccess) {
+        CompletableFuture<T> future = submit(task);
+        onFx(future, onSuccess);
+        return future;
+    }
+
+    public void cancelAll() {
+        generation.incrementAndGet();
+        for (CompletableFuture<?> future : pending) {
+            if (!(future instanceof WriteFuture)) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    public ReadOnlyIntegerProperty inFlightProperty() {
+        return inFlight.getReadOnlyProperty();
+    }
+
+    public void shutdown() {
+        cancelAll();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOG.warn("Background database writes still running at shutdown", "pending", pending.size());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void updateInFlight() {
+        if (Platform.isFxApplicationThread()) {
+            inFlight.set(inFlightCount.get());
+        } else {
+            Platform.runLater(() -> inFlight.set(inFlightCount.get()));
+        }
+    }
+
+    public CompletableFuture<List<Customer>> getAllCustomers() {
+        return submit(db::getAllCustomers);
+    }
+
+    public CompletableFuture<List<Customer>> searchCustomers(String query, int limit) {
+        return submit(() -> db.searchCustomers(query, limit));
+    }
+
+    public CompletableFuture<Long> countCustomers() {
+        return submit(db::countCustomers);
+    }
+
+    public CompletableFuture<CustomerPage> getCustomersPage(CustomerSortColumn sortColumn, boolean ascending,
+                                                            CustomerPage.Key after, int skip, int limit) {
+        return submit(() -> db.getCustomersPage(sortColumn, ascending, after, skip, limit));
+    }
+
+    public CompletableFuture<Customer> getCustomerById(Long id) {
+        return submit(() -> db.getCustomerById(id));
+    }
+
+    public CompletableFuture<List<Account>> getAccountsByCustomerId(Long customerId) {
+        return submit(() -> db.getAccountsByCustomerId(customerId));
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactionsByAccountId(Long accountId) {
+        return submit(() -> db.getTransactionsByAccountId(accountId));
+    }
+
+    public CompletableFuture<TransactionBlock> getTransactionBlock(Long accountId) {
+        return submit(() -> db.getTransactionBlock(accountId));
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactionsPage(Long accountId, Long beforeTransId, int limit) {
+        return submit(() -> db.getTransactionsPage(accountId, beforeTransId, limit));
+    }
+
+    public CompletableFuture<Boolean> transferFunds(Long fromAccountId, Long toAccountId, Long amount) {
+        return submitWrite(() -> db.transferFunds(fromAccountId, toAccountId, amount));
+    }
+
+    public CompletableFuture<List<TransferResult>> transferFundsBatch(List<TransferRequest> requests) {
+        return submitWrite(() -> db.transferFundsBatch(requests));
+    }
+
+    public CompletableFuture<List<Loan>> getLoansByCustomerId(Long customerId) {
+        return submit(() -> db.getLoansByCustomerId(customerId));
+    }
+
+    public CompletableFuture<Boolean> takeLoan(Long customerId, Long amount, Integer branchId) {
+        return submitWrite(() -> db.takeLoan(customerId, amount, branchId));
+    }
+
+    public CompletableFuture<List<Loan>> getAllLoans() {
+        return submit(db::getAllLoans);
+    }
+
+    public CompletableFuture<List<LoanWithCustomerInfo>> getAllLoansWithCustomerInfo() {
+        return submit(db::getAllLoansWithCustomerInfo);
+    }
+
+    public CompletableFuture<Map<Long, Customer>> getCustomersByIds(Collection<Long> ids) {
+        return submit(() -> db.getCustomersByIds(ids));
+    }
+
+    public CompletableFuture<Boolean> deleteCustomer(Long customerId) {
+        return submitWrite(() -> db.deleteCustomer(customerId));
+    }
+
+    public CompletableFuture<DeletionSummary> deleteCustomers(List<Long> customerIds) {
+        return submitWrite(() -> db.deleteCustomers(customerIds));
+    }
+
+    private static final class WriteFuture<T> extends CompletableFuture<T> {
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+    }
+}
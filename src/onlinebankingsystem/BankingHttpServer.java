@@ -0,0 +1,419 @@
+package onlinebankingsystem;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BankingHttpServer {
+    private static final Log LOG = Log.get(BankingHttpServer.class);
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int MAX_TRANSACTION_PAGE = 500;
+
+    private final DatabaseService db;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final int shutdownDelaySeconds;
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile boolean running;
+
+    public BankingHttpServer(DatabaseService db, Properties props) throws IOException {
+        this.db = db;
+        int port = Config.getInt(props, "http.port", 8080);
+        int maxConcurrent = Math.max(1, Config.getInt(props, "http.maxConcurrent", db.getConnectionPool().getMaxSize()));
+        this.permits = new Semaphore(maxConcurrent);
+        this.acquireTimeoutMs = Math.max(0, Config.getLong(props, "http.acquireTimeoutMs", 100));
+        this.shutdownDelaySeconds = Math.max(0, Config.getInt(props, "http.shutdownDelaySeconds", 10));
+        this.executor = VirtualThreads.newPerTaskExecutor("http",
+                Math.max(maxConcurrent + 1, Config.getInt(props, "http.fallbackThreads", 2 * maxConcurrent)),
+                Math.max(1, Config.getInt(props, "http.fallbackQueueCapacity", 4 * maxConcurrent)));
+
+        InetSocketAddress address = new InetSocketAddress(props.getProperty("http.host", "127.0.0.1"), port);
+        if (address.isUnresolved()) {
+            throw new IOException("Cannot resolve http.host " + address.getHostString());
+        }
+        // Reads are not authenticated, so exposing them beyond this machine has to be asked for explicitly.
+        if (!address.getAddress().isLoopbackAddress() && !Config.getBoolean(props, "http.allowRemote", false)) {
+            throw new IOException("Refusing to listen on non-loopback address " + address.getHostString()
+                    + ", set http.allowRemote=true to allow it");
+        }
+        this.server = HttpServer.create(address, Config.getInt(props, "http.backlog", 0));
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> handle(exchange, ignored -> Response.notFound()));
+        server.createContext("/health", exchange -> handle(exchange, this::health));
+        server.createContext("/customers", exchange -> handle(exchange, this::customers));
+        server.createContext("/accounts", exchange -> handle(exchange, this::accounts));
+        server.createContext("/transfers", exchange -> handle(exchange, this::transfers));
+        server.createContext("/loans", exchange -> handle(exchange, this::loans));
+    }
+
+    public void start() {
+        server.start();
+        running = true;
+        LOG.info("HTTP server started", "address", server.getAddress(), "maxConcurrent", permits.availablePermits(),
+                "virtualThreads", VirtualThreads.isAvailable());
+    }
+
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LOG.info("HTTP server stopping", "drainSeconds", shutdownDelaySeconds);
+        server.stop(shutdownDelaySeconds);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownDelaySeconds, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        LOG.info("HTTP server stopped", "served", served.get(), "rejected", rejected.get());
+        stopped.countDown();
+    }
+
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        long started = System.nanoTime();
+        try {
+            if (!running) {
+                respond(exchange, 503, Json.object("error", "Server is shutting down"));
+                return;
+            }
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 503, Json.object("error", "Too many concurrent requests"));
+                return;
+            }
+            try {
+                Response response = handler.handle(exchange);
+                respond(exchange, response.status, response.body);
+                served.incrementAndGet();
+            } finally {
+                permits.release();
+            }
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, Json.object("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, Json.object("error", "Server is busy"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, Json.object("error", "Interrupted"));
+        } catch (RuntimeException e) {
+            LOG.error("HTTP request failed", e, "method", exchange.getRequestMethod(), "path", exchange.getRequestURI().getPath());
+            respond(exchange, 500, Json.object("error", "Internal error"));
+        } finally {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("HTTP request", "method", exchange.getRequestMethod(), "path", exchange.getRequestURI().getPath(),
+                        "status", exchange.getResponseCode(),
+                        "micros", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+            }
+            exchange.close();
+        }
+    }
+
+    private Response health(HttpExchange exchange) {
+        ReplicaRouter replicas = db.getReplicaRouter();
+        return Response.ok(Json.object("status", "up", "poolActive", db.getConnectionPool().getActiveCount(),
+                "available", permits.availablePermits(),
+                "replicasUsable", replicas == null ? 0 : replicas.getUsableReplicaCount()));
+    }
+
+    private Response customers(HttpExchange exchange) throws IOException {
+        String[] path = segments(exchange.getRequestURI());
+        String method = exchange.getRequestMethod();
+        if (path.length == 1 && method.equals("POST")) {
+            Map<String, Object> body = readBody(exchange);
+            boolean registered = db.registerCustomerWithInitialBalance(
+                    requireString(body, "firstName"),
+                    requireString(body, "lastName"),
+                    requireInt(body, "phone"),
+                    requireString(body, "password"),
+                    optionalLong(body, "initialBalance", 0));
+            return registered
+                    ? new Response(201, Json.object("success", true))
+                    : new Response(409, Json.object("success", false, "error", "Registration failed"));
+        }
+        if (path.length == 3 && path[2].equals("accounts") && method.equals("GET")) {
+            List<String> accounts = new ArrayList<>();
+            for (Account account : db.getAccountsByCustomerId(parseId(path[1]))) {
+                accounts.add(Json.object("accountId", account.getAccountId(), "customerId", account.getCustomerId(),
+                        "balance", account.getBalance(), "status", account.getStatus(), "type", account.getType()));
+            }
+            return Response.ok(Json.array(accounts));
+        }
+        if (path.length == 3 && path[2].equals("loans") && method.equals("GET")) {
+            List<String> loans = new ArrayList<>();
+            for (Loan loan : db.getLoansByCustomerId(parseId(path[1]))) {
+                loans.add(Json.object("loanId", loan.getLoanId(), "customerId", loan.getCustId(),
+                        "amount", loan.getAmount(), "branchId", loan.getBranchId()));
+            }
+            return Response.ok(Json.array(loans));
+        }
+        return Response.notFound();
+    }
+
+    private Response accounts(HttpExchange exchange) {
+        String[] path = segments(exchange.getRequestURI());
+        if (path.length != 3 || !path[2].equals("transactions") || !exchange.getRequestMethod().equals("GET")) {
+            return Response.notFound();
+        }
+        Map<String, String> query = queryParameters(exchange.getRequestURI());
+        Long before = query.containsKey("before") ? parseId(query.get("before")) : null;
+        long limit = query.containsKey("limit") ? parseId(query.get("limit")) : 100;
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+
+        List<String> transactions = new ArrayList<>();
+        for (Transaction transaction : db.getTransactionsPage(parseId(path[1]), before, (int) Math.min(limit, MAX_TRANSACTION_PAGE))) {
+            transactions.add(Json.object("transId", transaction.getTransId(), "type", transaction.getType(),
+                    "fromId", transaction.getFromID(), "toId", transaction.getToID(), "amount", transaction.getAmount()));
+        }
+        return Response.ok(Json.array(transactions));
+    }
+
+    private Response transfers(HttpExchange exchange) throws IOException {
+        if (segments(exchange.getRequestURI()).length != 1 || !exchange.getRequestMethod().equals("POST")) {
+            return Response.notFound();
+        }
+        Long customerId = authenticate(exchange);
+        if (customerId == null) {
+            return unauthorized(exchange);
+        }
+        Map<String, Object> body = readBody(exchange);
+        long amount = requireLong(body, "amount");
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+        long fromAccountId = requireLong(body, "fromAccountId");
+        if (!ownsAccount(customerId, fromAccountId)) {
+            return Response.forbidden("fromAccountId does not belong to the authenticated customer");
+        }
+        boolean success = db.transferFunds(fromAccountId, requireLong(body, "toAccountId"), amount);
+        return success
+                ? Response.ok(Json.object("success", true))
+                : new Response(409, Json.object("success", false, "error", "Transfer was not applied"));
+    }
+
+    private Response loans(HttpExchange exchange) throws IOException {
+        if (segments(exchange.getRequestURI()).length != 1 || !exchange.getRequestMethod().equals("POST")) {
+            return Response.notFound();
+        }
+        Long customerId = authenticate(exchange);
+        if (customerId == null) {
+            return unauthorized(exchange);
+        }
+        Map<String, Object> body = readBody(exchange);
+        long amount = requireLong(body, "amount");
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+        if (body.get("customerId") != null && requireLong(body, "customerId") != customerId) {
+            return Response.forbidden("customerId does not match the authenticated customer");
+        }
+        Object branch = body.get("branchId");
+        boolean success = db.takeLoan(customerId, amount,
+                branch == null ? null : requireInt(body, "branchId"));
+        return success
+                ? new Response(201, Json.object("success", true))
+                : new Response(409, Json.object("success", false, "error", "Loan was not granted"));
+    }
+
+    // HTTP Basic with the customer id as the user name, checked the same way the desktop login is.
+    private Long authenticate(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int colon = decoded.indexOf(':');
+        if (colon <= 0) {
+            return null;
+        }
+        long customerId;
+        try {
+            customerId = Long.parseLong(decoded.substring(0, colon));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        try {
+            return db.getCredentials().verifyCustomer(customerId, decoded.substring(colon + 1)).join() ? customerId : null;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                throw (RejectedExecutionException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static Response unauthorized(HttpExchange exchange) {
+        exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"customer\"");
+        return new Response(401, Json.object("error", "Customer credentials required"));
+    }
+
+    private boolean ownsAccount(long customerId, long accountId) {
+        for (Account account : db.getAccountsByCustomerId(customerId)) {
+            if (account.getAccountId() == accountId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Request body too large");
+            }
+            return Json.parseObject(new String(body, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String[] segments(URI uri) {
+        String path = uri.getPath();
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        return path.isEmpty() ? new String[0] : path.split("/");
+    }
+
+    private static Map<String, String> queryParameters(URI uri) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = uri.getQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                parameters.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return parameters;
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + value);
+        }
+    }
+
+    private static String requireString(Map<String, Object> body, String key) {
+        Object value = body.get(key);
+        if (!(value instanceof String) || ((String) value).isBlank()) {
+            throw new IllegalArgumentException(key + " is required");
+        }
+        return (String) value;
+    }
+
+    private static long requireLong(Map<String, Object> body, String key) {
+        Object value = body.get(key);
+        if (!(value instanceof Long)) {
+            throw new IllegalArgumentException(key + " must be an integer");
+        }
+        return (Long) value;
+    }
+
+    private static int requireInt(Map<String, Object> body, String key) {
+        long value = requireLong(body, key);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(key + " must be between 0 and " + Integer.MAX_VALUE);
+        }
+        return (int) value;
+    }
+
+    private static long optionalLong(Map<String, Object> body, String key, long defaultValue) {
+        return body.get(key) == null ? defaultValue : requireLong(body, key);
+    }
+
+    private interface Handler {
+        Response handle(HttpExchange exchange) throws IOException, InterruptedException;
+    }
+
+    private static class Response {
+        private final int status;
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response ok(String body) {
+            return new Response(200, body);
+        }
+
+        static Response notFound() {
+            return new Response(404, Json.object("error", "Not found"));
+        }
+
+        static Response forbidden(String error) {
+            return new Response(403, Json.object("error", error));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Properties props = DatabaseService.loadDatabaseProperties();
+        DatabaseService db = new DatabaseService(props);
+        BankingHttpServer server = new BankingHttpServer(db, props);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            db.close();
+            Log.shutdown();
+        }, "http-shutdown"));
+        server.start();
+        server.awaitStop();
+    }
+}
@@ -0,0 +1,331 @@
+package onlinebankingsystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+
+public class ChangeFeed implements AutoCloseable {
+    private static final Log LOG = Log.get(ChangeFeed.class);
+    private static final int MAX_ROUNDS = 10;
+    private static final int MAX_GAPS = 10_000;
+    private static final int GAP_QUERY_CHUNK = 500;
+
+    public interface Listener {
+        void onChanges(Changes changes);
+    }
+
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static class Changes {
+        private final List<Transaction> transactions;
+        private final List<LoanWithCustomerInfo> loans;
+        private final List<Customer> customers;
+        private final boolean customersModified;
+        private final boolean loansModified;
+
+        Changes(List<Transaction> transactions, List<LoanWithCustomerInfo> loans, List<Customer> customers,
+                boolean customersModified, boolean loansModified) {
+            this.transactions = Collections.unmodifiableList(transactions);
+            this.loans = Collections.unmodifiableList(loans);
+            this.customers = Collections.unmodifiableList(customers);
+            this.customersModified = customersModified;
+            this.loansModified = loansModified;
+        }
+
+        public List<Transaction> getTransactions() { return transactions; }
+        public List<LoanWithCustomerInfo> getLoans() { return loans; }
+        public List<Customer> getCustomers() { return customers; }
+        public boolean isCustomersModified() { return customersModified; }
+        public boolean isLoansModified() { return loansModified; }
+
+        public boolean isEmpty() {
+            return transactions.isEmpty() && loans.isEmpty() && customers.isEmpty() && !customersModified && !loansModified;
+        }
+
+        public Set<Long> getTouchedAccountIds() {
+            Set<Long> ids = new HashSet<>();
+            for (Transaction transaction : transactions) {
+                ids.add(transaction.getFromID());
+                ids.add(transaction.getToID());
+            }
+            ids.remove(null);
+            ids.remove(0L);
+            return ids;
+        }
+    }
+
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private final DatabaseService db;
+    private final DatabaseMetrics metrics;
+    private final int batchSize;
+    private final long gapTimeoutNanos;
+    private final long resyncIntervalNanos;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService poller;
+    private final Cursor<Transaction> transactions;
+    private final Cursor<LoanWithCustomerInfo> loans;
+    private final Cursor<Customer> customers;
+    private final Checksum customerChecksum = new Checksum(SqlStatements.CUSTOMERS_CHECKSUM);
+    private final Checksum loanChecksum = new Checksum(SqlStatements.LOANS_CHECKSUM);
+    private boolean initialized;
+    private long lastResync = System.nanoTime();
+
+    public ChangeFeed(DatabaseService db, Properties props) {
+        this.db = db;
+        this.metrics = db.getMetrics();
+        this.batchSize = Math.max(1, Config.getInt(props, "changefeed.batchSize", 1_000));
+        this.gapTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Config.getLong(props, "changefeed.gapTimeoutMs", 5_000));
+        this.resyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Config.getLong(props, "changefeed.resyncIntervalMs", 30_000));
+        long intervalMs = Math.max(10, Config.getLong(props, "changefeed.intervalMs", 1_000));
+
+        this.transactions = new Cursor<>("transactions", SqlStatements.MAX_TRANSACTION_ID,
+                SqlStatements.SELECT_TRANSACTIONS_AFTER, SqlStatements::selectTransactionsByIds,
+                rs -> new Transaction(rs.getLong("trans_id"), rs.getString("type"),
+                        rs.getLong("fromID"), rs.getLong("toID"), rs.getLong("amount")),
+                Transaction::getTransId);
+        this.loans = new Cursor<>("loans", SqlStatements.MAX_LOAN_ID,
+                SqlStatements.SELECT_LOANS_WITH_CUSTOMER_AFTER, SqlStatements::selectLoansWithCustomerByIds,
+                rs -> {
+                    int branchId = rs.getInt("branch_id");
+                    Integer branch = rs.wasNull() ? null : branchId;
+                    return new LoanWithCustomerInfo(rs.getLong("loan_id"), rs.getLong("cust_id"),
+                            rs.getString("first_name") + " " + rs.getString("last_name"),
+                            rs.getLong("amount"), branch);
+                },
+                LoanWithCustomerInfo::getLoanId);
+        this.customers = new Cursor<>("customers", SqlStatements.MAX_CUSTOMER_ID,
+                SqlStatements.SELECT_CUSTOMERS_AFTER, SqlStatements::selectCustomerSummariesByIds,
+                rs -> new Customer(rs.getLong("id"), rs.getString("first_name"), rs.getString("last_name"),
+                        rs.getInt("phone"), null, null),
+                Customer::getId);
+
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-feed");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::poll, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public Subscription subscribe(Listener listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public long getTransactionHighWater() { return transactions.highWater; }
+
+    public long getLoanHighWater() { return loans.highWater; }
+
+    public long getCustomerHighWater() { return customers.highWater; }
+
+    private void poll() {
+        long started = System.nanoTime();
+        Changes changes;
+        try (Connection conn = db.getConnection()) {
+            if (!initialized) {
+                transactions.start(conn);
+                loans.start(conn);
+                customers.start(conn);
+                customerChecksum.update(conn, customers.highWater);
+                loanChecksum.update(conn, loans.highWater);
+                initialized = true;
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Change feed positioned", "transactions", transactions.highWater, "loans", loans.highWater,
+                            "customers", customers.highWater);
+                }
+                return;
+            }
+            List<Transaction> newTransactions = transactions.poll(conn);
+            List<LoanWithCustomerInfo> newLoans = loans.poll(conn);
+            List<Customer> newCustomers = customers.poll(conn);
+            boolean customersModified = false;
+            boolean loansModified = false;
+            if (!listeners.isEmpty() && System.nanoTime() - lastResync >= resyncIntervalNanos) {
+                customersModified = customerChecksum.update(conn, customers.highWater);
+                loansModified = loanChecksum.update(conn, loans.highWater);
+                lastResync = System.nanoTime();
+            }
+            changes = new Changes(newTransactions, newLoans, newCustomers, customersModified, loansModified);
+        } catch (SQLException e) {
+            metrics.recordError("changeFeedPoll", e);
+            LOG.warn("Change feed poll failed", "error", e.getMessage());
+            return;
+        } finally {
+            metrics.record("changeFeedPoll", started);
+        }
+
+        if (changes.isEmpty()) {
+            return;
+        }
+        db.invalidateAccounts(changes.getTouchedAccountIds());
+        for (LoanWithCustomerInfo loan : changes.getLoans()) {
+            db.invalidateCustomer(loan.getCustomerId());
+        }
+        if (changes.isCustomersModified()) {
+            db.getCustomerCache().clear();
+            db.getAccountCache().clear();
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Change feed delta", "transactions", changes.getTransactions().size(),
+                    "loans", changes.getLoans().size(), "customers", changes.getCustomers().size(),
+                    "customersModified", changes.isCustomersModified(), "loansModified", changes.isLoansModified());
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.onChanges(changes);
+            } catch (RuntimeException e) {
+                LOG.error("Change feed listener failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+        listeners.clear();
+    }
+
+    private static final class Checksum {
+        private final String sql;
+        private long bound = -1;
+        private long count;
+        private long crc;
+
+        Checksum(String sql) {
+            this.sql = sql;
+        }
+
+        // Compares the rows up to the previous high-water mark with the last pass, so inserts never
+        // count as modifications but updates and deletes of already delivered rows do.
+        boolean update(Connection conn, long highWater) throws SQLException {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, Math.max(0, bound));
+                stmt.setLong(2, Math.max(0, bound));
+                stmt.setLong(3, highWater);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    boolean modified = bound >= 0 && (rs.getLong(1) != count || rs.getLong(2) != crc);
+                    bound = highWater;
+                    count = rs.getLong(3);
+                    crc = rs.getLong(4);
+                    return modified;
+                }
+            }
+        }
+    }
+
+    private final class Cursor<T> {
+        private final String name;
+        private final String maxSql;
+        private final String afterSql;
+        private final IntFunction<String> byIdsSql;
+        private final RowMapper<T> mapper;
+        private final ToLongFunction<T> idOf;
+        private final TreeMap<Long, Long> gaps = new TreeMap<>();
+        private volatile long highWater;
+
+        Cursor(String name, String maxSql, String afterSql, IntFunction<String> byIdsSql,
+               RowMapper<T> mapper, ToLongFunction<T> idOf) {
+            this.name = name;
+            this.maxSql = maxSql;
+            this.afterSql = afterSql;
+            this.byIdsSql = byIdsSql;
+            this.mapper = mapper;
+            this.idOf = idOf;
+        }
+
+        void start(Connection conn) throws SQLException {
+            gaps.clear();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(maxSql)) {
+                highWater = rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+
+        List<T> poll(Connection conn) throws SQLException {
+            List<T> rows = new ArrayList<>();
+            pollGaps(conn, rows);
+
+            try (PreparedStatement stmt = conn.prepareStatement(afterSql)) {
+                for (int round = 0; round < MAX_ROUNDS; round++) {
+                    stmt.setLong(1, highWater);
+                    stmt.setInt(2, batchSize);
+                    int fetched = 0;
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            T row = mapper.map(rs);
+                            long id = idOf.applyAsLong(row);
+                            long deadline = System.nanoTime() + gapTimeoutNanos;
+                            for (long missing = highWater + 1; missing < id && gaps.size() < MAX_GAPS; missing++) {
+                                gaps.put(missing, deadline);
+                            }
+                            highWater = id;
+                            rows.add(row);
+                            fetched++;
+                        }
+                    }
+                    if (fetched < batchSize) {
+                        break;
+                    }
+                }
+            }
+            return rows;
+        }
+
+        private void pollGaps(Connection conn, List<T> rows) throws SQLException {
+            long now = System.nanoTime();
+            Iterator<Map.Entry<Long, Long>> expired = gaps.entrySet().iterator();
+            while (expired.hasNext()) {
+                if (expired.next().getValue() - now < 0) {
+                    expired.remove();
+                }
+            }
+            if (gaps.isEmpty()) {
+                return;
+            }
+
+            List<Long> pending = new ArrayList<>(gaps.keySet());
+            for (int from = 0; from < pending.size(); from += GAP_QUERY_CHUNK) {
+                List<Long> chunk = pending.subList(from, Math.min(from + GAP_QUERY_CHUNK, pending.size()));
+                try (PreparedStatement stmt = conn.prepareStatement(byIdsSql.apply(chunk.size()))) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setLong(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            T row = mapper.map(rs);
+                            gaps.remove(idOf.applyAsLong(row));
+                            rows.add(row);
+                        }
+                    }
+                }
+            }
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Change feed gaps", "table", name, "open", gaps.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package onlinebankingsystem;
+
+import java.util.Properties;
+
+final class Config {
+    private static final Log LOG = Log.get(Config.class);
+
+    private Config() {
+    }
+
+    static int getInt(Properties props, String key, int defaultValue) {
+        return (int) getLong(props, key, defaultValue);
+    }
+
+    static long getLong(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid config value, using default", "key", key, "value", value, "default", defaultValue);
+            return defaultValue;
+        }
+    }
+
+    static boolean getBoolean(Properties props, String key, boolean defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+}
@@ -0,0 +1,355 @@
+package onlinebankingsystem;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConnectionPool implements AutoCloseable {
+    private static final Log LOG = Log.get(ConnectionPool.class);
+    private static final long VALIDATION_INTERVAL_MS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final String DRIVER_PROPERTY_PREFIX = "db.driver.";
+
+    private final String url;
+    private final Properties driverProperties = new Properties();
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long acquireTimeoutMs;
+    private final String validationQuery;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String user, String password, Properties props) {
+        this.url = url;
+        if (user != null) driverProperties.setProperty("user", user);
+        if (password != null) driverProperties.setProperty("password", password);
+        driverProperties.setProperty("cachePrepStmts", "true");
+        driverProperties.setProperty("prepStmtCacheSize", "250");
+        driverProperties.setProperty("prepStmtCacheSqlLimit", "2048");
+        driverProperties.setProperty("cacheCallableStmts", "true");
+        driverProperties.setProperty("callableStmtCacheSize", "100");
+        driverProperties.setProperty("useServerPrepStmts", "false");
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith(DRIVER_PROPERTY_PREFIX)) {
+                driverProperties.setProperty(key.substring(DRIVER_PROPERTY_PREFIX.length()), props.getProperty(key).trim());
+            }
+        }
+        this.maxSize = Math.max(1, Config.getInt(props, "db.pool.maxSize", 10));
+        this.minSize = Math.min(maxSize, Math.max(0, Config.getInt(props, "db.pool.minSize", 2)));
+        this.idleTimeoutMs = Config.getLong(props, "db.pool.idleTimeoutMs", 600_000L);
+        this.maxLifetimeMs = Config.getLong(props, "db.pool.maxLifetimeMs", 1_800_000L);
+        this.acquireTimeoutMs = Config.getLong(props, "db.pool.acquireTimeoutMs", 10_000L);
+        this.validationQuery = props.getProperty("db.pool.validationQuery", "").trim();
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000L, Math.min(30_000L, idleTimeoutMs / 2));
+        housekeeper.scheduleWithFixedDelay(this::maintain, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed", "08003");
+        }
+
+        long waitStart = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", "08001", e);
+        }
+        long waited = System.nanoTime() - waitStart;
+        acquireCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        if (!acquired) {
+            timeoutCount.incrementAndGet();
+            throw new SQLTimeoutException("Timed out after " + acquireTimeoutMs + " ms waiting for a database connection ("
+                    + activeConnections.get() + " active, " + maxSize + " max)", "08001");
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = openPhysical();
+            }
+            activeConnections.incrementAndGet();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (pooled.isExpired(now)) {
+                discard(pooled);
+            } else if (now - pooled.lastReturned > VALIDATION_INTERVAL_MS && !isValid(pooled.physical)) {
+                discard(pooled);
+            } else {
+                return pooled;
+            }
+        }
+        return null;
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, driverProperties);
+        try {
+            PooledConnection pooled = new PooledConnection(physical);
+            totalConnections.incrementAndGet();
+            return pooled;
+        } catch (SQLException e) {
+            physical.close();
+            throw e;
+        }
+    }
+
+    private boolean isValid(Connection conn) {
+        try {
+            if (validationQuery.isEmpty()) {
+                return conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+                stmt.execute(validationQuery);
+                return true;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        activeConnections.decrementAndGet();
+        try {
+            Connection physical = pooled.physical;
+            if (closed || physical.isClosed() || pooled.isExpired(System.currentTimeMillis())) {
+                discard(pooled);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+            }
+            // Stored procedures open their own transactions and leave user variables behind, neither of which
+            // the JDBC autocommit flag sees, so every returned connection gets a clean server session.
+            resetSession(pooled);
+            if (!physical.getAutoCommit()) {
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            if (physical.getTransactionIsolation() != pooled.defaultIsolation) {
+                physical.setTransactionIsolation(pooled.defaultIsolation);
+            }
+            pooled.lastReturned = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            LOG.warn("Discarding broken pooled connection", "error", e.getMessage());
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static void resetSession(PooledConnection pooled) throws SQLException {
+        if (pooled.resetServerState == null) {
+            try (Statement stmt = pooled.physical.createStatement()) {
+                stmt.execute("ROLLBACK");
+            }
+            return;
+        }
+        try {
+            pooled.resetServerState.invoke(pooled.physical);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof SQLException ? (SQLException) cause : new SQLException("Could not reset session", "08003", cause);
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("Could not reset session", "08003", e);
+        }
+    }
+
+    private static Method findResetServerState(Connection physical) {
+        try {
+            return physical.getClass().getMethod("resetServerState");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOG.error("Error closing pooled connection", "error", e.getMessage());
+        }
+    }
+
+    private void maintain() {
+        if (closed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext()) {
+            PooledConnection pooled = it.next();
+            boolean idleTooLong = now - pooled.lastReturned > idleTimeoutMs && totalConnections.get() > minSize;
+            if ((idleTooLong || pooled.isExpired(now)) && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+
+        while (!closed && totalConnections.get() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = openPhysical();
+                pooled.lastReturned = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                LOG.warn("Could not pre-fill connection pool", "error", e.getMessage());
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    public int getActiveCount() { return activeConnections.get(); }
+
+    public int getIdleCount() { return idle.size(); }
+
+    public int getTotalCount() { return totalConnections.get(); }
+
+    public int getMaxSize() { return maxSize; }
+
+    public int getWaitingCount() { return permits.getQueueLength(); }
+
+    public long getAcquireCount() { return acquireCount.get(); }
+
+    public long getTimeoutCount() { return timeoutCount.get(); }
+
+    public double getAverageWaitMillis() {
+        long count = acquireCount.get();
+        return count == 0 ? 0.0 : totalWaitNanos.get() / (count * 1_000_000.0);
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    public String getStatistics() {
+        return String.format("active=%d, idle=%d, total=%d, max=%d, waiting=%d, acquired=%d, timeouts=%d, avgWait=%.3fms, maxWait=%.3fms",
+                getActiveCount(), getIdleCount(), getTotalCount(), maxSize, getWaitingCount(),
+                getAcquireCount(), getTimeoutCount(), getAverageWaitMillis(), getMaxWaitMillis());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private class PooledConnection {
+        private final Connection physical;
+        private final int defaultIsolation;
+        private final Method resetServerState;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastReturned = createdAt;
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.defaultIsolation = physical.getTransactionIsolation();
+            this.resetServerState = findResetServerState(physical);
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, new Lease(this));
+        }
+
+        boolean isExpired(long now) {
+            return maxLifetimeMs > 0 && now - createdAt > maxLifetimeMs;
+        }
+    }
+
+    private class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!returned) {
+                            returned = true;
+                            release(pooled);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pooled.physical + "]";
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool", "08003");
+                    }
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
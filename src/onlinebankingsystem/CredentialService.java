@@ -0,0 +1,161 @@
+package onlinebankingsystem;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class CredentialService implements AutoCloseable {
+    private static final Log LOG = Log.get(CredentialService.class);
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA512";
+    private static final String PREFIX = "pbkdf2-sha512";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final ThreadLocal<Boolean> ON_EXECUTOR = ThreadLocal.withInitial(() -> false);
+
+    private final DatabaseService db;
+    private final int iterations;
+    private final ThreadPoolExecutor executor;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public CredentialService(DatabaseService db, Properties props) {
+        this.db = db;
+        this.iterations = Math.max(1, Config.getInt(props, "credentials.iterations", 210_000));
+        int threads = Math.max(1, Config.getInt(props, "credentials.threads",
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+        int maxQueue = Math.max(1, Config.getInt(props, "credentials.maxQueue", 64));
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueue), r -> {
+                    Thread t = new Thread(() -> {
+                        ON_EXECUTOR.set(true);
+                        r.run();
+                    }, "credentials-" + count.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public String hash(String password) {
+        if (ON_EXECUTOR.get()) {
+            return hash(password, iterations);
+        }
+        try {
+            return submit(() -> hash(password, iterations)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<String> hashAsync(String password) {
+        return submit(() -> hash(password, iterations));
+    }
+
+    String hash(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] key = derive(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(key);
+    }
+
+    public boolean matches(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] salt = decoder.decode(parts[2]);
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(password, salt, storedIterations, expected.length * 8));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Malformed password hash", "error", e.getMessage());
+            return false;
+        }
+    }
+
+    public boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public CompletableFuture<Boolean> verifyCustomer(Long customerId, String password) {
+        return submit(() -> db.verifyCustomerPassword(customerId, password));
+    }
+
+    public CompletableFuture<Boolean> matchesAsync(String password, String stored) {
+        return submit(() -> matches(password, stored));
+    }
+
+    public int getIterations() { return iterations; }
+
+    public int getQueueDepth() { return executor.getQueue().size(); }
+
+    public long getRejectedCount() { return rejected.get(); }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            LOG.warn("Credential task rejected, queue is full", "queueDepth", executor.getQueue().size());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX + "$");
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        return derive(password, salt, iterations, KEY_BITS);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int keyBits) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, keyBits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,239 @@
+package onlinebankingsystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+public class CustomerDeletionEngine {
+    private static final Log LOG = Log.get(CustomerDeletionEngine.class);
+
+    private final DatabaseService db;
+    private final DatabaseMetrics metrics;
+    private final int maxChunkSize;
+    private final int minChunkSize;
+    private final long maxChunkNanos;
+    private final long pauseMillis;
+    private final long progressIntervalMs;
+    private volatile int chunkSize;
+
+    public CustomerDeletionEngine(DatabaseService db, Properties props) {
+        this.db = db;
+        this.metrics = db.getMetrics();
+        this.maxChunkSize = Math.max(1, Config.getInt(props, "delete.chunkSize", 500));
+        this.minChunkSize = Math.max(1, Math.min(maxChunkSize, Config.getInt(props, "delete.minChunkSize", 50)));
+        this.maxChunkNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, Config.getLong(props, "delete.maxChunkMillis", 50)));
+        this.pauseMillis = Math.max(0, Config.getLong(props, "delete.pauseMillis", 10));
+        this.progressIntervalMs = Config.getLong(props, "delete.progressIntervalMs", 5_000);
+        this.chunkSize = maxChunkSize;
+    }
+
+    public boolean deleteCustomer(Long customerId) {
+        return deleteCustomer(customerId, new Progress());
+    }
+
+    public DeletionSummary deleteCustomers(List<Long> customerIds) {
+        long startedAt = System.currentTimeMillis();
+        long lastProgressAt = startedAt;
+        Progress progress = new Progress();
+        int deleted = 0;
+        int done = 0;
+
+        for (Long customerId : customerIds) {
+            if (deleteCustomer(customerId, progress)) {
+                deleted++;
+            }
+            done++;
+            long now = System.currentTimeMillis();
+            if (now - lastProgressAt >= progressIntervalMs) {
+                lastProgressAt = now;
+                LOG.info("Customer deletion progress", "customers", done + "/" + customerIds.size(),
+                        "deleted", deleted, "transactions", progress.transactions, "chunkSize", chunkSize);
+            }
+        }
+
+        DeletionSummary summary = new DeletionSummary(customerIds.size(), deleted, progress.transactions,
+                progress.chunks, System.currentTimeMillis() - startedAt);
+        LOG.info("Customer deletion finished", "summary", summary);
+        return summary;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private boolean deleteCustomer(Long customerId, Progress progress) {
+        long started = System.nanoTime();
+        LedgerEngine ledger = db.getLedger();
+        try {
+            if (ledger != null && !ledger.retireCustomer(customerId)) {
+                LOG.error("Pending ledger postings were not persisted, customer not deleted", "customerId", customerId);
+                ledger.forgetCustomer(customerId, false);
+                return false;
+            }
+            boolean deleted = false;
+            try {
+                deleted = deleteRows(customerId, progress);
+            } finally {
+                if (ledger != null) {
+                    ledger.forgetCustomer(customerId, deleted);
+                }
+            }
+            return deleted;
+        } catch (SQLException e) {
+            metrics.recordError("deleteCustomer", e);
+            LOG.error("Error deleting customer", e, "customerId", customerId);
+            return false;
+        } finally {
+            metrics.record("deleteCustomer", started);
+        }
+    }
+
+    private boolean deleteRows(Long customerId, Progress progress) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            String uid;
+            try (PreparedStatement stmt = conn.prepareStatement(SqlStatements.SELECT_CUSTOMER_UID)) {
+                stmt.setLong(1, customerId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    uid = rs.getString("uid");
+                }
+            }
+
+            List<Long> accountIds = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(SqlStatements.SELECT_ACCOUNT_IDS_BY_CUSTOMER)) {
+                stmt.setLong(1, customerId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        accountIds.add(rs.getLong(1));
+                    }
+                }
+            }
+
+            for (Long accountId : accountIds) {
+                purge(conn, SqlStatements.DELETE_TRANSACTIONS_FROM_ACCOUNT, accountId, progress);
+                purge(conn, SqlStatements.DELETE_TRANSACTIONS_TO_ACCOUNT, accountId, progress);
+            }
+
+            int customerRows;
+            conn.setAutoCommit(false);
+            try {
+                for (Long accountId : accountIds) {
+                    progress.transactions += deleteRemaining(conn, SqlStatements.DELETE_TRANSACTIONS_FROM_ACCOUNT, accountId);
+                    progress.transactions += deleteRemaining(conn, SqlStatements.DELETE_TRANSACTIONS_TO_ACCOUNT, accountId);
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(SqlStatements.DELETE_CUSTOMER_ACCOUNTS)) {
+                    stmt.setLong(1, customerId);
+                    stmt.executeUpdate();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(SqlStatements.DELETE_CUSTOMER_LOANS)) {
+                    stmt.setLong(1, customerId);
+                    stmt.executeUpdate();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(SqlStatements.DELETE_CUSTOMER)) {
+                    stmt.setLong(1, customerId);
+                    customerRows = stmt.executeUpdate();
+                }
+                if (uid != null) {
+                    try (PreparedStatement stmt = conn.prepareStatement(SqlStatements.DELETE_AUTH_USER)) {
+                        stmt.setString(1, uid);
+                        stmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            db.invalidateCustomer(customerId);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Customer deleted", "customerId", customerId, "accounts", accountIds.size());
+            }
+            return customerRows > 0;
+        }
+    }
+
+    private void purge(Connection conn, String sql, long accountId, Progress progress) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            while (true) {
+                int limit = chunkSize;
+                long started = System.nanoTime();
+                stmt.setLong(1, accountId);
+                stmt.setInt(2, limit);
+                int deleted = stmt.executeUpdate();
+                adapt(limit, System.nanoTime() - started);
+                progress.transactions += deleted;
+                progress.chunks++;
+                if (deleted < limit) {
+                    return;
+                }
+                pause();
+            }
+        }
+    }
+
+    private int deleteRemaining(Connection conn, String sql, long accountId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, accountId);
+            stmt.setInt(2, Integer.MAX_VALUE);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private void adapt(int limit, long elapsedNanos) {
+        if (elapsedNanos > maxChunkNanos && limit > minChunkSize) {
+            chunkSize = Math.max(minChunkSize, limit / 2);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Deletion chunk was slow, shrinking", "chunkSize", chunkSize,
+                        "millis", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            }
+        } else if (elapsedNanos < maxChunkNanos / 2 && limit < maxChunkSize) {
+            chunkSize = Math.min(maxChunkSize, limit * 2);
+        }
+    }
+
+    private void pause() {
+        if (pauseMillis == 0 || Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Progress {
+        private long transactions;
+        private long chunks;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: CustomerDeletionEngine <customerId> [customerId...]");
+            return;
+        }
+        List<Long> customerIds = new ArrayList<>();
+        for (String arg : args) {
+            customerIds.add(Long.parseLong(arg));
+        }
+        Properties props = DatabaseService.loadDatabaseProperties();
+        DatabaseService db = new DatabaseService(props);
+        try {
+            DeletionSummary summary = db.getDeletionEngine().deleteCustomers(customerIds);
+            System.out.println(summary);
+        } finally {
+            db.close();
+            Log.shutdown();
+        }
+    }
+}
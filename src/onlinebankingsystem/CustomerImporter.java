@@ -0,0 +1,424 @@
+package onlinebankingsystem;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CustomerImporter {
+    private static final Log LOG = Log.get(CustomerImporter.class);
+    private static final List<ImportRow> END_OF_INPUT = Collections.emptyList();
+
+    private final DatabaseService db;
+    private final CredentialService credentials;
+    private final int chunkSize;
+    private final int workers;
+    private final int hashThreads;
+    private final int hashIterations;
+    private final long progressIntervalMs;
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile boolean failed;
+    private long startedAt;
+    private long lastProgressAt;
+
+    public CustomerImporter(DatabaseService db, Properties props) {
+        this.db = db;
+        this.credentials = db.getCredentials();
+        this.chunkSize = Math.max(1, Config.getInt(props, "import.chunkSize", 1000));
+        int requested = Config.getInt(props, "import.workers", 4);
+        this.workers = Math.max(1, Math.min(requested, db.getConnectionPool().getMaxSize()));
+        this.progressIntervalMs = Config.getLong(props, "import.progressIntervalMs", 5_000);
+        this.hashThreads = Math.max(1, Config.getInt(props, "import.hashThreads", Runtime.getRuntime().availableProcessors()));
+        this.hashIterations = Math.max(1, Math.min(credentials.getIterations(),
+                Config.getInt(props, "import.hashIterations", credentials.getIterations())));
+        if (hashIterations < credentials.getIterations()) {
+            LOG.warn("Imported passwords are hashed below the configured cost until each customer next logs in",
+                    "iterations", hashIterations, "configured", credentials.getIterations());
+        }
+    }
+
+    public ImportSummary importCsv(Path input, Path report) throws IOException, SQLException {
+        startedAt = System.currentTimeMillis();
+        lastProgressAt = startedAt;
+        BlockingQueue<List<ImportRow>> chunks = new ArrayBlockingQueue<>(workers * 2);
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "customer-import");
+            t.setDaemon(true);
+            return t;
+        });
+        ExecutorService hashers = Executors.newFixedThreadPool(hashThreads, r -> {
+            Thread t = new Thread(r, "customer-import-hash");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter out = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            out.write("line,status,customer_id,account_id,message");
+            out.newLine();
+
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                results.add(pool.submit(() -> {
+                    try {
+                        runWorker(chunks, hashers, out);
+                    } catch (Exception e) {
+                        failed = true;
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+
+            try {
+                readChunks(in, chunks, out);
+            } finally {
+                for (int i = 0; i < workers; i++) {
+                    hand(chunks, END_OF_INPUT);
+                }
+            }
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof SQLException) throw (SQLException) cause;
+                    if (cause instanceof IOException) throw (IOException) cause;
+                    throw new IllegalStateException("Import worker failed", cause);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            hashers.shutdownNow();
+        }
+
+        ImportSummary summary = new ImportSummary(rowsRead.get(), imported.get(), rejected.get(),
+                System.currentTimeMillis() - startedAt);
+        LOG.info("Customer import finished", "summary", summary, "report", report.toAbsolutePath());
+        return summary;
+    }
+
+    private void readChunks(BufferedReader in, BlockingQueue<List<ImportRow>> chunks, BufferedWriter out) throws IOException {
+        String header = in.readLine();
+        if (header == null) {
+            return;
+        }
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        String line;
+        long lineNumber = 1;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            rowsRead.incrementAndGet();
+            ImportRow row = ImportRow.parse(lineNumber, line);
+            if (row.error != null) {
+                reject(out, row, row.error);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                if (!hand(chunks, chunk)) {
+                    return;
+                }
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            hand(chunks, chunk);
+        }
+    }
+
+    private void runWorker(BlockingQueue<List<ImportRow>> chunks, ExecutorService hashers, BufferedWriter out)
+            throws SQLException, IOException, InterruptedException {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                while (true) {
+                    List<ImportRow> chunk = chunks.poll(100, TimeUnit.MILLISECONDS);
+                    if (chunk == null) {
+                        if (failed) {
+                            return;
+                        }
+                        continue;
+                    }
+                    if (chunk == END_OF_INPUT || failed) {
+                        return;
+                    }
+                    hashPasswords(chunk, hashers);
+                    importChunk(conn, chunk, out);
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void hashPasswords(List<ImportRow> chunk, ExecutorService hashers) throws InterruptedException {
+        List<Future<?>> hashes = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            hashes.add(hashers.submit(() -> {
+                row.passwordHash = credentials.hash(row.password, hashIterations);
+            }));
+        }
+        for (Future<?> hash : hashes) {
+            try {
+                hash.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Password hashing failed", e.getCause());
+            }
+        }
+    }
+
+    private void importChunk(Connection conn, List<ImportRow> chunk, BufferedWriter out) throws SQLException, IOException {
+        try {
+            insertChunk(conn, chunk);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            if (chunk.size() == 1) {
+                reject(out, chunk.get(0), e.getMessage());
+                return;
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Chunk failed, retrying row by row", "firstLine", chunk.get(0).lineNumber, "error", e.getMessage());
+            }
+            for (ImportRow row : chunk) {
+                importChunk(conn, Collections.singletonList(row), out);
+            }
+            return;
+        }
+
+        synchronized (out) {
+            for (ImportRow row : chunk) {
+                out.write(row.lineNumber + ",imported," + row.customerId + "," + row.accountId + ",");
+                out.newLine();
+            }
+        }
+        imported.addAndGet(chunk.size());
+        reportProgress();
+    }
+
+    private void insertChunk(Connection conn, List<ImportRow> chunk) throws SQLException {
+        try (PreparedStatement authStmt = conn.prepareStatement(SqlStatements.INSERT_AUTH_USER)) {
+            for (ImportRow row : chunk) {
+                row.uid = UUID.randomUUID().toString();
+                authStmt.setString(1, row.uid);
+                authStmt.addBatch();
+            }
+            authStmt.executeBatch();
+        }
+
+        try (PreparedStatement customerStmt = conn.prepareStatement(SqlStatements.INSERT_CUSTOMER, Statement.RETURN_GENERATED_KEYS)) {
+            for (ImportRow row : chunk) {
+                customerStmt.setString(1, row.firstName);
+                customerStmt.setString(2, row.lastName);
+                customerStmt.setInt(3, row.phone);
+                customerStmt.setString(4, row.uid);
+                customerStmt.setString(5, row.passwordHash);
+                customerStmt.addBatch();
+            }
+            customerStmt.executeBatch();
+            try (ResultSet keys = customerStmt.getGeneratedKeys()) {
+                for (ImportRow row : chunk) {
+                    if (!keys.next()) {
+                        throw new SQLException("Missing generated customer id for line " + row.lineNumber);
+                    }
+                    row.customerId = keys.getLong(1);
+                }
+            }
+        }
+
+        try (PreparedStatement accountStmt = conn.prepareStatement(SqlStatements.INSERT_ACCOUNT, Statement.RETURN_GENERATED_KEYS)) {
+            for (ImportRow row : chunk) {
+                accountStmt.setLong(1, row.customerId);
+                accountStmt.setLong(2, row.initialBalance);
+                accountStmt.setString(3, "active");
+                accountStmt.setString(4, "savings");
+                accountStmt.addBatch();
+            }
+            accountStmt.executeBatch();
+            try (ResultSet keys = accountStmt.getGeneratedKeys()) {
+                for (ImportRow row : chunk) {
+                    if (!keys.next()) {
+                        throw new SQLException("Missing generated account id for line " + row.lineNumber);
+                    }
+                    row.accountId = keys.getLong(1);
+                }
+            }
+        }
+
+        try (PreparedStatement depositStmt = conn.prepareStatement(SqlStatements.INSERT_DEPOSIT_TRANSACTION)) {
+            boolean deposits = false;
+            for (ImportRow row : chunk) {
+                if (row.initialBalance > 0) {
+                    depositStmt.setString(1, "initial_deposit");
+                    depositStmt.setLong(2, row.accountId);
+                    depositStmt.setLong(3, row.initialBalance);
+                    depositStmt.addBatch();
+                    deposits = true;
+                }
+            }
+            if (deposits) {
+                depositStmt.executeBatch();
+            }
+        }
+    }
+
+    private void reject(BufferedWriter out, ImportRow row, String message) throws IOException {
+        synchronized (out) {
+            out.write(row.lineNumber + ",rejected,,," + csvField(message));
+            out.newLine();
+        }
+        rejected.incrementAndGet();
+    }
+
+    private void reportProgress() {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (now - lastProgressAt < progressIntervalMs) {
+                return;
+            }
+            lastProgressAt = now;
+        }
+        double seconds = (now - startedAt) / 1000.0;
+        LOG.info("Customer import progress", "read", rowsRead.get(), "imported", imported.get(),
+                "rejected", rejected.get(), "rowsPerSec", Math.round(seconds > 0 ? imported.get() / seconds : 0));
+    }
+
+    private static String csvField(String value) {
+        String text = value == null ? "" : value;
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private boolean hand(BlockingQueue<List<ImportRow>> chunks, List<ImportRow> chunk) {
+        try {
+            while (!failed) {
+                if (chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private static class ImportRow {
+        private final long lineNumber;
+        private String firstName;
+        private String lastName;
+        private int phone;
+        private String password;
+        private String passwordHash;
+        private long initialBalance;
+        private String error;
+        private String uid;
+        private long customerId;
+        private long accountId;
+
+        private ImportRow(long lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+
+        static ImportRow parse(long lineNumber, String line) {
+            ImportRow row = new ImportRow(lineNumber);
+            List<String> fields = splitCsv(line);
+            if (fields.size() < 4 || fields.size() > 5) {
+                row.error = "Expected first_name,last_name,phone,password[,initial_balance]";
+                return row;
+            }
+            row.firstName = fields.get(0).trim();
+            row.lastName = fields.get(1).trim();
+            row.password = fields.get(3);
+            if (row.firstName.isEmpty() || row.lastName.isEmpty() || row.password.isEmpty()) {
+                row.error = "Name and password are required";
+                return row;
+            }
+            try {
+                row.phone = Integer.parseInt(fields.get(2).trim());
+                row.initialBalance = fields.size() == 5 && !fields.get(4).isBlank() ? Long.parseLong(fields.get(4).trim()) : 0;
+            } catch (NumberFormatException e) {
+                row.error = "Invalid number: " + e.getMessage();
+                return row;
+            }
+            if (row.initialBalance < 0) {
+                row.error = "Initial balance cannot be negative";
+            }
+            return row;
+        }
+
+        private static List<String> splitCsv(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: CustomerImporter <customers.csv> [report.csv]");
+            return;
+        }
+        Properties props = DatabaseService.loadDatabaseProperties();
+        DatabaseService db = new DatabaseService(props);
+        try {
+            Path report = Paths.get(args.length > 1 ? args[1] : "import-report.csv");
+            ImportSummary summary = new CustomerImporter(db, props).importCsv(Paths.get(args[0]), report);
+            System.out.println(summary);
+        } finally {
+            db.close();
+            Log.shutdown();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package onlinebankingsystem;
+
+import java.util.List;
+
+public class CustomerPage {
+    private final List<Customer> customers;
+    private final Key lastKey;
+
+    public CustomerPage(List<Customer> customers, Key lastKey) {
+        this.customers = customers;
+        this.lastKey = lastKey;
+    }
+
+    public List<Customer> getCustomers() { return customers; }
+
+    // Sort value and id of the last row, the seek position for the page that follows.
+    public Key getLastKey() { return lastKey; }
+
+    public static class Key {
+        private final Object sortValue;
+        private final long id;
+
+        public Key(Object sortValue, long id) {
+            this.sortValue = sortValue;
+            this.id = id;
+        }
+
+        public Object getSortValue() { return sortValue; }
+
+        public long getId() { return id; }
+    }
+}
@@ -0,0 +1,16 @@
+package onlinebankingsystem;
+
+public enum CustomerSortColumn {
+    ID("id"),
+    FIRST_NAME("first_name"),
+    LAST_NAME("last_name"),
+    PHONE("phone");
+
+    private final String columnName;
+
+    CustomerSortColumn(String columnName) {
+        this.columnName = columnName;
+    }
+
+    public String getColumnName() { return columnName; }
+}
@@ -0,0 +1,128 @@
+package onlinebankingsystem;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class DatabaseMetrics implements AutoCloseable {
+    private static final Log LOG = Log.get(DatabaseMetrics.class);
+    private static final String JMX_DOMAIN = "onlinebankingsystem";
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentSkipListMap<>();
+    private final Map<String, Boolean> registered = new ConcurrentHashMap<>();
+    private final boolean jmxEnabled;
+    private final Path dumpFile;
+    private final ScheduledExecutorService dumper;
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+
+    public DatabaseMetrics(Properties props) {
+        this.jmxEnabled = Config.getBoolean(props, "metrics.jmx.enabled", true);
+        this.dumpFile = Paths.get(props.getProperty("metrics.file", "db-metrics.log"));
+        long intervalSeconds = Config.getLong(props, "metrics.dumpIntervalSeconds", 60);
+
+        if (intervalSeconds > 0) {
+            this.dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "db-metrics-dump");
+                t.setDaemon(true);
+                return t;
+            });
+            dumper.scheduleAtFixedRate(this::dump, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        } else {
+            this.dumper = null;
+        }
+    }
+
+    public OperationMetrics operation(String name) {
+        OperationMetrics metrics = operations.computeIfAbsent(name, OperationMetrics::new);
+        if (jmxEnabled && !registered.containsKey(name) && registered.putIfAbsent(name, Boolean.TRUE) == null) {
+            register(metrics);
+        }
+        return metrics;
+    }
+
+    public void record(String operation, long startNanos) {
+        operation(operation).recordLatency(System.nanoTime() - startNanos);
+    }
+
+    public void recordError(String operation, SQLException e) {
+        operation(operation).recordError(e);
+    }
+
+    public Map<String, OperationMetrics> getOperations() {
+        return operations;
+    }
+
+    public void dump() {
+        if (operations.isEmpty()) {
+            return;
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(dumpFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write("# " + Instant.now());
+            out.newLine();
+            for (OperationMetrics metrics : operations.values()) {
+                out.write(metrics.summary());
+                out.newLine();
+            }
+        } catch (IOException e) {
+            LOG.error("Error writing metrics", "file", dumpFile, "error", e.getMessage());
+        }
+    }
+
+    private void register(OperationMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=DatabaseService,operation=" + ObjectName.quote(metrics.getOperation()));
+            try {
+                server.registerMBean(metrics, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(metrics, name);
+            }
+            synchronized (registeredNames) {
+                registeredNames.add(name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Could not register metrics MBean", "operation", metrics.getOperation(), "error", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+        }
+        dump();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        synchronized (registeredNames) {
+            for (ObjectName name : registeredNames) {
+                try {
+                    server.unregisterMBean(name);
+                } catch (JMException e) {
+                    LOG.warn("Could not unregister metrics MBean", "name", name, "error", e.getMessage());
+                }
+            }
+            registeredNames.clear();
+        }
+    }
+}
@@ -3,75 +3,220 @@ package onlinebankingsystem;
 import javafx.collections.FXCollections;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.io.File;
 import java.io.InputStream;
 
 
 public class DatabaseService {
+    private static final Log LOG = Log.get(DatabaseService.class);
+    private static final int IN_LIST_CHUNK_SIZE = 500;
+
     private String URL ;
     private String USER ;
     private String PASSWORD ;
+    private final Properties props;
+    private final ConnectionPool connectionPool;
+    private final ReplicaRouter replicas;
+    private final DatabaseMetrics metrics;
+    private final int transferChunkSize;
+    private final LruCache<Long, Customer> customerCache;
+    private final LruCache<Long, List<Account>> accountCache;
+    private final Map<Long, Long> accountOwners = new ConcurrentHashMap<>();
+    private final LedgerEngine ledger;
+    private final TransferCoalescer transferCoalescer;
+    private final CustomerDeletionEngine deletionEngine;
+    private final CredentialService credentials;
 
     public DatabaseService() {
-        loadDatabaseProperties();
+        this(loadDatabaseProperties());
     }
 
-    private void loadDatabaseProperties() {
+    public DatabaseService(Properties props) {
+        this.props = props;
+        Log.configure(props);
+        this.URL = props.getProperty("db.URL");
+        this.USER = props.getProperty("db.USER");
+        this.PASSWORD = props.getProperty("db.PASSWORD");
+
+        if (this.URL == null || this.USER == null || this.PASSWORD == null) {
+            LOG.error("One or more database properties not found in config file");
+        }
+
+        this.connectionPool = new ConnectionPool(URL, USER, PASSWORD, props);
+        this.replicas = ReplicaRouter.parseUrls(props).isEmpty()
+                ? null
+                : new ReplicaRouter(connectionPool, USER, PASSWORD, props);
+        this.metrics = new DatabaseMetrics(props);
+        this.transferChunkSize = Math.max(1, Config.getInt(props, "db.batch.transferChunkSize", 500));
+
+        this.ledger = Config.getBoolean(props, "ledger.enabled", false)
+                ? new LedgerEngine(connectionPool, metrics, props)
+                : null;
+        this.transferCoalescer = ledger == null && Config.getBoolean(props, "transfer.coalesce.enabled", false)
+                ? new TransferCoalescer(this, props)
+                : null;
+        this.deletionEngine = new CustomerDeletionEngine(this, props);
+        this.credentials = new CredentialService(this, props);
+
+        int cacheSize = Config.getInt(props, "cache.maxSize", 10_000);
+        long cacheTtlMs = Config.getLong(props, "cache.ttlMs", 30_000L);
+        this.customerCache = new LruCache<>(cacheSize, cacheTtlMs);
+        this.accountCache = new LruCache<>(cacheSize, cacheTtlMs, (customerId, accounts) -> {
+            for (Account account : accounts) {
+                accountOwners.remove(account.getAccountId(), customerId);
+            }
+        });
+    }
+
+    public static Properties loadDatabaseProperties() {
         Properties props = new Properties();
         try {
             File configFile = new File("config.properties");
             if (configFile.exists()) {
                 try (FileInputStream fis = new FileInputStream(configFile)) {
                     props.load(fis);
-                    System.out.println("Loaded config from file: " + configFile.getAbsolutePath());
+                    LOG.info("Loaded config from file", "path", configFile.getAbsolutePath());
                 }
             } else {
-                try (InputStream is = getClass().getClassLoader().getResourceAsStream("config.properties")) {
+                try (InputStream is = DatabaseService.class.getClassLoader().getResourceAsStream("config.properties")) {
                     if (is != null) {
                         props.load(is);
-                        System.out.println("Loaded config from classpath");
+                        LOG.info("Loaded config from classpath");
                     } else {
-                        System.err.println("Could not find config.properties in classpath");
+                        LOG.error("Could not find config.properties in classpath");
                     }
                 }
             }
-
-            this.URL = props.getProperty("db.URL");
-            this.USER = props.getProperty("db.USER");
-            this.PASSWORD = props.getProperty("db.PASSWORD");
-
-            if (this.URL == null || this.USER == null || this.PASSWORD == null) {
-                System.err.println("One or more database properties not found in config file");
-            }
         } catch (IOException e) {
-            System.err.println("Failed to load database properties: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Failed to load database properties", e);
         }
+        return props;
     }
 
 
-    private Connection getConnection() throws SQLException {
+    Connection getConnection() throws SQLException {
+        try {
+            return connectionPool.getConnection();
+        } catch (SQLException e) {
+            LOG.error("Database connection error", "error", e.getMessage());
+            throw e;
+        }
+    }
+
+    Connection getReadConnection(boolean stickToPrimary) throws SQLException {
+        if (replicas == null) {
+            return getConnection();
+        }
         try {
-            return DriverManager.getConnection(URL, USER, PASSWORD);
+            return replicas.getReadConnection(stickToPrimary);
         } catch (SQLException e) {
-            System.err.println("Database connection error: " + e.getMessage());
+            LOG.error("Database connection error", "error", e.getMessage());
             throw e;
         }
     }
 
+    public ReplicaRouter getReplicaRouter() {
+        return replicas;
+    }
+
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public DatabaseMetrics getMetrics() {
+        return metrics;
+    }
+
+    public LedgerEngine getLedger() {
+        return ledger;
+    }
+
+    public TransferCoalescer getTransferCoalescer() {
+        return transferCoalescer;
+    }
+
+    public CustomerDeletionEngine getDeletionEngine() {
+        return deletionEngine;
+    }
+
+    public CredentialService getCredentials() {
+        return credentials;
+    }
+
+    public LruCache<Long, Customer> getCustomerCache() {
+        return customerCache;
+    }
+
+    public LruCache<Long, List<Account>> getAccountCache() {
+        return accountCache;
+    }
+
+    void invalidateCustomer(Long customerId) {
+        customerCache.invalidate(customerId);
+        accountCache.invalidate(customerId);
+        if (replicas != null) {
+            replicas.pinCustomer(customerId);
+        }
+    }
+
+    void invalidateAccounts(Collection<Long> accountIds) {
+        accountCache.invalidateInFlightLoads();
+        for (Long accountId : accountIds) {
+            Long owner = accountId == null ? null : accountOwners.get(accountId);
+            if (owner != null) {
+                accountCache.invalidate(owner);
+            }
+            if (replicas != null) {
+                replicas.pinAccount(accountId);
+                replicas.pinCustomer(owner);
+            }
+        }
+    }
+
+    public void close() {
+        credentials.close();
+        if (transferCoalescer != null) {
+            transferCoalescer.close();
+        }
+        if (ledger != null) {
+            ledger.close();
+        }
+        if (replicas != null) {
+            LOG.info("Closing replica pools", "statistics", replicas.getStatistics());
+            replicas.close();
+        }
+        LOG.info("Closing connection pool", "statistics", connectionPool.getStatistics());
+        connectionPool.close();
+        metrics.close();
+    }
+
     public List<Customer> getAllCustomers() {
+        long started = System.nanoTime();
         List<Customer> customers = new ArrayList<>();
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection(false);
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM customers")) {
+             ResultSet rs = stmt.executeQuery(SqlStatements.SELECT_ALL_CUSTOMERS)) {
 
             while (rs.next()) {
                 customers.add(new Customer(
@@ -80,51 +225,301 @@ public class DatabaseService {
                         rs.getString("last_name"),
                         rs.getInt("phone"),
                         rs.getString("uid"),
-                        rs.getString("password")
+                        null
                 ));
             }
         } catch (SQLException e) {
-            System.err.println("Error getting customers: " + e.getMessage());
+            metrics.recordError("getAllCustomers", e);
+            LOG.error("Error getting customers", "error", e.getMessage());
+        } finally {
+            metrics.record("getAllCustomers", started);
+        }
+
+        return customers;
+    }
+
+    public List<Customer> searchCustomers(String query, int limit) {
+        long started = System.nanoTime();
+        List<Customer> customers = new ArrayList<>();
+        String text = query == null ? "" : query.trim();
+        if (text.isEmpty() || limit <= 0) {
+            return customers;
+        }
+
+        try (Connection conn = getReadConnection(false)) {
+            PreparedStatement pstmt;
+            if (text.chars().allMatch(Character::isDigit)) {
+                List<long[]> ranges = phonePrefixRanges(text);
+                if (ranges.isEmpty()) {
+                    return customers;
+                }
+                pstmt = conn.prepareStatement(SqlStatements.searchCustomersByPhone(ranges.size()));
+                int index = 1;
+                for (long[] range : ranges) {
+                    pstmt.setLong(index++, range[0]);
+                    pstmt.setLong(index++, range[1]);
+                }
+                pstmt.setInt(index, limit);
+            } else if (text.indexOf(' ') > 0) {
+                int space = text.indexOf(' ');
+                pstmt = conn.prepareStatement(SqlStatements.SEARCH_CUSTOMERS_BY_FULL_NAME);
+                pstmt.setString(1, likePrefix(text.substring(0, space)));
+                pstmt.setString(2, likePrefix(text.substring(space + 1).trim()));
+                pstmt.setInt(3, limit);
+            } else {
+                pstmt = conn.prepareStatement(SqlStatements.SEARCH_CUSTOMERS_BY_NAME);
+                pstmt.setString(1, likePrefix(text));
+                pstmt.setInt(2, limit);
+                pstmt.setString(3, likePrefix(text));
+                pstmt.setInt(4, limit);
+                pstmt.setInt(5, limit);
+            }
+
+            try (PreparedStatement stmt = pstmt;
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    customers.add(new Customer(
+                            rs.getLong("id"),
+                            rs.getString("first_name"),
+                            rs.getString("last_name"),
+                            rs.getInt("phone"),
+                            null,
+                            null
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            metrics.recordError("searchCustomers", e);
+            LOG.error("Error searching customers", "error", e.getMessage());
+        } finally {
+            metrics.record("searchCustomers", started);
         }
 
         return customers;
     }
 
+    private static List<long[]> phonePrefixRanges(String digits) {
+        List<long[]> ranges = new ArrayList<>();
+        if (digits.length() > 10 || (digits.length() > 1 && digits.charAt(0) == '0')) {
+            return ranges;
+        }
+        long low = Long.parseLong(digits);
+        long high = low;
+        while (low <= Integer.MAX_VALUE) {
+            ranges.add(new long[] {low, Math.min(high, Integer.MAX_VALUE)});
+            if (low == 0) {
+                break;
+            }
+            low *= 10;
+            high = high * 10 + 9;
+        }
+        return ranges;
+    }
+
+    private static String likePrefix(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    public long countCustomers() {
+        long started = System.nanoTime();
+        try (Connection conn = getReadConnection(false);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SqlStatements.COUNT_CUSTOMERS)) {
+
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            metrics.recordError("countCustomers", e);
+            LOG.error("Error counting customers", "error", e.getMessage());
+        } finally {
+            metrics.record("countCustomers", started);
+        }
+
+        return 0;
+    }
+
+    public CustomerPage getCustomersPage(CustomerSortColumn sortColumn, boolean ascending, CustomerPage.Key after, int skip, int limit) {
+        long started = System.nanoTime();
+        List<Customer> customers = new ArrayList<>();
+        CustomerPage.Key lastKey = null;
+        boolean nullBoundary = after != null && after.getSortValue() == null;
+
+        try (Connection conn = getReadConnection(false);
+             PreparedStatement pstmt = conn.prepareStatement(
+                     SqlStatements.selectCustomerPage(sortColumn, ascending, after != null, nullBoundary))) {
+
+            int index = 1;
+            if (after != null && sortColumn != CustomerSortColumn.ID && !nullBoundary) {
+                pstmt.setObject(index++, after.getSortValue());
+                pstmt.setObject(index++, after.getSortValue());
+            }
+            if (after != null) {
+                pstmt.setLong(index++, after.getId());
+            }
+            pstmt.setInt(index++, limit);
+            pstmt.setInt(index, skip);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong("id");
+                    int phone = rs.getInt("phone");
+                    boolean phoneNull = rs.wasNull();
+                    Customer customer = new Customer(id, rs.getString("first_name"), rs.getString("last_name"),
+                            phone, null, null);
+                    customers.add(customer);
+                    lastKey = new CustomerPage.Key(sortValue(sortColumn, customer, phoneNull), id);
+                }
+            }
+        } catch (SQLException e) {
+            metrics.recordError("getCustomersPage", e);
+            LOG.error("Error getting customer page", "error", e.getMessage());
+        } finally {
+            metrics.record("getCustomersPage", started);
+        }
+
+        return new CustomerPage(customers, lastKey);
+    }
+
+    private static Object sortValue(CustomerSortColumn sortColumn, Customer customer, boolean phoneNull) {
+        switch (sortColumn) {
+            case FIRST_NAME:
+                return customer.getFirstName();
+            case LAST_NAME:
+                return customer.getLastName();
+            case PHONE:
+                return phoneNull ? null : customer.getPhone();
+            default:
+                return customer.getId();
+        }
+    }
+
     public Customer getCustomerById(Long id) {
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM customers WHERE id = ?")) {
+        long started = System.nanoTime();
+        Customer cached = customerCache.get(id);
+        if (cached != null) {
+            metrics.record("getCustomerById", started);
+            return cached;
+        }
+        long cacheVersion = customerCache.version();
+
+        try (Connection conn = getReadConnection(isCustomerPinned(id));
+             PreparedStatement pstmt = conn.prepareStatement(SqlStatements.SELECT_CUSTOMER_BY_ID)) {
 
             pstmt.setLong(1, id);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Customer(
+                    Customer customer = new Customer(
                             rs.getLong("id"),
                             rs.getString("first_name"),
                             rs.getString("last_name"),
                             rs.getInt("phone"),
                             rs.getString("uid"),
-                            rs.getString("password")
+                            null
                     );
+                    customerCache.putIfUnchanged(id, customer, cacheVersion);
+                    return customer;
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting customer: " + e.getMessage());
+            metrics.recordError("getCustomerById", e);
+            LOG.error("Error getting customer", "error", e.getMessage());
+        } finally {
+            metrics.record("getCustomerById", started);
         }
 
         return null;
     }
 
+    public Map<Long, Customer> getCustomersByIds(Collection<Long> ids) {
+        long started = System.nanoTime();
+        Map<Long, Customer> customers = new LinkedHashMap<>();
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinctIds.removeIf(Objects::isNull);
+        if (distinctIds.isEmpty()) {
+            return customers;
+        }
+
+        boolean stickToPrimary = replicas != null && replicas.isAnyCustomerPinned(distinctIds);
+        try (Connection conn = getReadConnection(stickToPrimary)) {
+            for (int from = 0; from < distinctIds.size(); from += IN_LIST_CHUNK_SIZE) {
+                List<Long> chunk = distinctIds.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, distinctIds.size()));
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        SqlStatements.selectCustomersByIds(chunk.size()))) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setLong(i + 1, chunk.get(i));
+                    }
+
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            customers.put(rs.getLong("id"), new Customer(
+                                    rs.getLong("id"),
+                                    rs.getString("first_name"),
+                                    rs.getString("last_name"),
+                                    rs.getInt("phone"),
+                                    rs.getString("uid"),
+                                    null
+                            ));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            metrics.recordError("getCustomersByIds", e);
+            LOG.error("Error getting customers by id", "error", e.getMessage());
+        } finally {
+            metrics.record("getCustomersByIds", started);
+        }
+
+        return customers;
+    }
+
     public boolean registerCustomer(String firstName, String lastName, int phone, String password) {
 
         return registerCustomerWithInitialBalance(firstName, lastName, phone, password, 0);
     }
 
     public List<Account> getAccountsByCustomerId(Long customerId) {
+        long started = System.nanoTime();
+        List<Account> cached = accountCache.get(customerId);
+        if (cached != null) {
+            metrics.record("getAccountsByCustomerId", started);
+            return new ArrayList<>(cached);
+        }
+        long cacheVersion = accountCache.version();
         List<Account> accounts = new ArrayList<>();
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM account WHERE customer_id = ?")) {
+        try {
+            boolean stickToPrimary = isCustomerPinned(customerId);
+            readAccounts(customerId, stickToPrimary, accounts);
+            if (!stickToPrimary && anyAccountPinned(accounts)) {
+                accounts.clear();
+                readAccounts(customerId, true, accounts);
+            }
+
+            if (ledger != null) {
+                ledger.applyBalances(accounts);
+            }
+            synchronized (accountCache) {
+                for (Account account : accounts) {
+                    accountOwners.put(account.getAccountId(), customerId);
+                }
+                accountCache.putIfUnchanged(customerId, new ArrayList<>(accounts), cacheVersion);
+            }
+        } catch (SQLException e) {
+            metrics.recordError("getAccountsByCustomerId", e);
+            LOG.error("Error getting accounts", "error", e.getMessage());
+        } finally {
+            metrics.record("getAccountsByCustomerId", started);
+        }
+
+        return accounts;
+    }
+
+    private void readAccounts(Long customerId, boolean stickToPrimary, List<Account> accounts) throws SQLException {
+        try (Connection conn = getReadConnection(stickToPrimary);
+             PreparedStatement pstmt = conn.prepareStatement(SqlStatements.SELECT_ACCOUNTS_BY_CUSTOMER)) {
 
             pstmt.setLong(1, customerId);
 
@@ -139,20 +534,38 @@ public class DatabaseService {
                     ));
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting accounts: " + e.getMessage());
         }
+    }
 
-        return accounts;
+    private boolean isCustomerPinned(Long customerId) {
+        return replicas != null && replicas.isCustomerPinned(customerId);
+    }
+
+    boolean isAccountPinned(Long accountId) {
+        return replicas != null && replicas.isAccountPinned(accountId);
+    }
+
+    private boolean anyAccountPinned(List<Account> accounts) {
+        if (replicas == null) {
+            return false;
+        }
+        for (Account account : accounts) {
+            if (replicas.isAccountPinned(account.getAccountId())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public boolean registerCustomerWithInitialBalance(String firstName, String lastName, int phone, String password, long initialBalance) {
+        long started = System.nanoTime();
         Connection conn = null;
         PreparedStatement authStmt = null;
         PreparedStatement customerStmt = null;
         PreparedStatement accountStmt = null;
         PreparedStatement transactionStmt = null;
         ResultSet generatedKeys = null;
+        String passwordHash = credentials.hash(password);
 
         try {
             conn = getConnection();
@@ -162,18 +575,16 @@ public class DatabaseService {
             String uid = java.util.UUID.randomUUID().toString();
 
 
-            String authSql = "INSERT INTO auth_users (id) VALUES (?)";
-            authStmt = conn.prepareStatement(authSql);
+            authStmt = conn.prepareStatement(SqlStatements.INSERT_AUTH_USER);
             authStmt.setString(1, uid);
             authStmt.executeUpdate();
 
-            String customerSql = "INSERT INTO customers (first_name, last_name, phone, uid, password) VALUES (?, ?, ?, ?, ?)";
-            customerStmt = conn.prepareStatement(customerSql, Statement.RETURN_GENERATED_KEYS);
+            customerStmt = conn.prepareStatement(SqlStatements.INSERT_CUSTOMER, Statement.RETURN_GENERATED_KEYS);
             customerStmt.setString(1, firstName);
             customerStmt.setString(2, lastName);
             customerStmt.setInt(3, phone);
             customerStmt.setString(4, uid);
-            customerStmt.setString(5, password); 
+            customerStmt.setString(5, passwordHash);
 
             int affectedRows = customerStmt.executeUpdate();
             long customerId = -1;
@@ -182,7 +593,9 @@ public class DatabaseService {
                 generatedKeys = customerStmt.getGeneratedKeys();
                 if (generatedKeys.next()) {
                     customerId = generatedKeys.getLong(1);
-                    System.out.println("New customer registered with ID: " + customerId);
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("New customer registered", "customerId", customerId);
+                    }
                 }
             } else {
                 conn.rollback();
@@ -191,8 +604,7 @@ public class DatabaseService {
 
 
             if (customerId != -1) {
-                String accountSql = "INSERT INTO account (customer_id, balance, status, type) VALUES (?, ?, ?, ?)";
-                accountStmt = conn.prepareStatement(accountSql, Statement.RETURN_GENERATED_KEYS);
+                accountStmt = conn.prepareStatement(SqlStatements.INSERT_ACCOUNT, Statement.RETURN_GENERATED_KEYS);
                 accountStmt.setLong(1, customerId);
                 accountStmt.setLong(2, initialBalance);  
                 accountStmt.setString(3, "active");
@@ -206,19 +618,22 @@ public class DatabaseService {
                     generatedKeys = accountStmt.getGeneratedKeys();
                     if (generatedKeys.next()) {
                         accountId = generatedKeys.getLong(1);
-                        System.out.println("New account created with ID: " + accountId + " and balance: " + initialBalance);
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("New account created", "accountId", accountId, "balance", initialBalance);
+                        }
                     }
 
 
                     if (initialBalance > 0 && accountId != -1) {
-                        String transactionSql = "INSERT INTO transactions (type, toID, amount) VALUES (?, ?, ?)";
-                        transactionStmt = conn.prepareStatement(transactionSql);
+                        transactionStmt = conn.prepareStatement(SqlStatements.INSERT_DEPOSIT_TRANSACTION);
                         transactionStmt.setString(1, "initial_deposit");
                         transactionStmt.setLong(2, accountId);  
                         transactionStmt.setLong(3, initialBalance);
 
                         transactionStmt.executeUpdate();
-                        System.out.println("Initial deposit transaction recorded: " + initialBalance);
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Initial deposit transaction recorded", "accountId", accountId, "amount", initialBalance);
+                        }
                     }
                 } else {
                     conn.rollback();
@@ -227,19 +642,21 @@ public class DatabaseService {
             }
 
             conn.commit();
+            invalidateCustomer(customerId);
             return true;
         } catch (SQLException e) {
+            metrics.recordError("registerCustomerWithInitialBalance", e);
             if (conn != null) {
                 try {
                     conn.rollback();
                 } catch (SQLException ex) {
-                    System.err.println("Error rolling back transaction: " + ex.getMessage());
+                    LOG.error("Error rolling back transaction", "error", ex.getMessage());
                 }
             }
-            System.err.println("Error registering customer with initial balance: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error registering customer with initial balance", e);
             return false;
         } finally {
+            metrics.record("registerCustomerWithInitialBalance", started);
             try {
                 if (generatedKeys != null) generatedKeys.close();
                 if (transactionStmt != null) transactionStmt.close();
@@ -251,22 +668,58 @@ public class DatabaseService {
                     conn.close();
                 }
             } catch (SQLException e) {
-                System.err.println("Error closing resources: " + e.getMessage());
+                LOG.error("Error closing resources", "error", e.getMessage());
             }
         }
     }
 
 
     public List<Transaction> getTransactionsByAccountId(Long accountId) {
-        List<Transaction> transactions = new ArrayList<>();
+        return getTransactionBlock(accountId).asList();
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                     "SELECT * FROM transactions WHERE fromID = ? OR toID = ? ORDER BY trans_id DESC")) {
+    public TransactionBlock getTransactionBlock(Long accountId) {
+        long started = System.nanoTime();
+
+        try (Connection conn = getReadConnection(isAccountPinned(accountId));
+             PreparedStatement pstmt = conn.prepareStatement(SqlStatements.SELECT_TRANSACTIONS_BY_ACCOUNT,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
 
+            pstmt.setFetchSize(Integer.MIN_VALUE);
             pstmt.setLong(1, accountId);
             pstmt.setLong(2, accountId);
 
+            try (ResultSet rs = pstmt.executeQuery()) {
+                TransactionBlock block = TransactionBlock.fromResultSet(rs);
+                block.trimToSize();
+                return block;
+            }
+        } catch (SQLException e) {
+            metrics.recordError("getTransactionsByAccountId", e);
+            LOG.error("Error getting transactions", "error", e.getMessage());
+        } finally {
+            metrics.record("getTransactionsByAccountId", started);
+        }
+
+        return new TransactionBlock(1);
+    }
+
+    public List<Transaction> getTransactionsPage(Long accountId, Long beforeTransId, int limit) {
+        long started = System.nanoTime();
+        List<Transaction> transactions = new ArrayList<>();
+        long before = beforeTransId == null ? Long.MAX_VALUE : beforeTransId;
+
+        try (Connection conn = getReadConnection(isAccountPinned(accountId));
+             PreparedStatement pstmt = conn.prepareStatement(SqlStatements.SELECT_TRANSACTION_PAGE)) {
+
+            pstmt.setLong(1, accountId);
+            pstmt.setLong(2, before);
+            pstmt.setInt(3, limit);
+            pstmt.setLong(4, accountId);
+            pstmt.setLong(5, before);
+            pstmt.setInt(6, limit);
+            pstmt.setInt(7, limit);
+
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     transactions.add(new Transaction(
@@ -279,15 +732,35 @@ public class DatabaseService {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting transactions: " + e.getMessage());
+            metrics.recordError("getTransactionsPage", e);
+            LOG.error("Error getting transaction page", "error", e.getMessage());
+        } finally {
+            metrics.record("getTransactionsPage", started);
         }
 
         return transactions;
     }
 
     public boolean transferFunds(Long fromAccountId, Long toAccountId, Long amount) {
+        long started = System.nanoTime();
+        if (ledger != null) {
+            try {
+                return ledger.transfer(fromAccountId, toAccountId, amount).isApplied();
+            } finally {
+                metrics.record("transferFunds", started);
+                invalidateAccounts(Arrays.asList(fromAccountId, toAccountId));
+            }
+        }
+        if (transferCoalescer != null) {
+            try {
+                return transferCoalescer.submit(new TransferRequest(fromAccountId, toAccountId, amount)).join().isSuccess();
+            } finally {
+                metrics.record("transferFunds", started);
+                invalidateAccounts(Arrays.asList(fromAccountId, toAccountId));
+            }
+        }
         try (Connection conn = getConnection();
-             CallableStatement cstmt = conn.prepareCall("{CALL TransferFunds(?, ?, ?)}")) {
+             CallableStatement cstmt = conn.prepareCall(SqlStatements.CALL_TRANSFER_FUNDS)) {
 
             cstmt.setLong(1, fromAccountId);
             cstmt.setLong(2, toAccountId);
@@ -296,16 +769,163 @@ public class DatabaseService {
             cstmt.execute();
             return true;
         } catch (SQLException e) {
-            System.err.println("Error transferring funds: " + e.getMessage());
+            metrics.recordError("transferFunds", e);
+            LOG.error("Error transferring funds", "error", e.getMessage());
             return false;
+        } finally {
+            metrics.record("transferFunds", started);
+            invalidateAccounts(Arrays.asList(fromAccountId, toAccountId));
+        }
+    }
+
+    public List<TransferResult> transferFundsBatch(List<TransferRequest> requests) {
+        long started = System.nanoTime();
+        List<TransferResult> results = new ArrayList<>(requests.size());
+
+        try {
+            if (ledger != null) {
+                for (TransferRequest request : requests) {
+                    results.add(new TransferResult(request,
+                            ledger.transfer(request.getFromAccountId(), request.getToAccountId(), request.getAmount())));
+                }
+            } else {
+                try (Connection conn = getConnection()) {
+                    for (int from = 0; from < requests.size(); from += transferChunkSize) {
+                        List<TransferRequest> chunk = requests.subList(from, Math.min(from + transferChunkSize, requests.size()));
+                        try {
+                            results.addAll(applyTransferChunk(conn, chunk, "transferFundsBatch"));
+                        } catch (SQLException e) {
+                            for (TransferRequest request : chunk) {
+                                results.add(new TransferResult(request, TransferResult.Status.FAILED));
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            metrics.recordError("transferFundsBatch", e);
+            LOG.error("Error transferring funds in batch", "error", e.getMessage());
+        } finally {
+            metrics.record("transferFundsBatch", started);
+        }
+
+        for (int i = results.size(); i < requests.size(); i++) {
+            results.add(new TransferResult(requests.get(i), TransferResult.Status.FAILED));
+        }
+
+        Set<Long> touched = new HashSet<>();
+        for (TransferRequest request : requests) {
+            touched.add(request.getFromAccountId());
+            touched.add(request.getToAccountId());
+        }
+        invalidateAccounts(touched);
+
+        if (LOG.isEnabled(LogLevel.INFO)) {
+            long succeeded = results.stream().filter(TransferResult::isSuccess).count();
+            double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+            LOG.info("Batch transfer finished", "succeeded", succeeded, "total", requests.size(),
+                    "ms", String.format("%.1f", seconds * 1000),
+                    "transfersPerSec", Math.round(seconds > 0 ? requests.size() / seconds : 0.0));
+        }
+        return results;
+    }
+
+    List<TransferResult> applyTransferChunk(Connection conn, List<TransferRequest> chunk, String metric) throws SQLException {
+        TreeSet<Long> accountIds = new TreeSet<>();
+        for (TransferRequest request : chunk) {
+            if (request.getFromAccountId() != null) accountIds.add(request.getFromAccountId());
+            if (request.getToAccountId() != null) accountIds.add(request.getToAccountId());
+        }
+
+        List<TransferResult> results = new ArrayList<>(chunk.size());
+        conn.setAutoCommit(false);
+        try {
+            Map<Long, Long> balances = new HashMap<>();
+            if (!accountIds.isEmpty()) {
+                try (PreparedStatement lockStmt = conn.prepareStatement(
+                        SqlStatements.lockAccountsForUpdate(accountIds.size()))) {
+                    int index = 1;
+                    for (Long accountId : accountIds) {
+                        lockStmt.setLong(index++, accountId);
+                    }
+                    try (ResultSet rs = lockStmt.executeQuery()) {
+                        while (rs.next()) {
+                            balances.put(rs.getLong("account_id"), rs.getLong("balance"));
+                        }
+                    }
+                }
+            }
+
+            TreeMap<Long, Long> deltas = new TreeMap<>();
+            List<TransferRequest> applied = new ArrayList<>();
+            for (TransferRequest request : chunk) {
+                Long fromId = request.getFromAccountId();
+                Long toId = request.getToAccountId();
+                Long amount = request.getAmount();
+                TransferResult.Status status;
+
+                if (amount == null || amount <= 0) {
+                    status = TransferResult.Status.FAILED;
+                } else if (fromId == null || toId == null || !balances.containsKey(fromId) || !balances.containsKey(toId)) {
+                    status = TransferResult.Status.INVALID_ACCOUNT;
+                } else if (balances.get(fromId) < amount) {
+                    status = TransferResult.Status.INSUFFICIENT_FUNDS;
+                } else {
+                    balances.merge(fromId, -amount, Long::sum);
+                    balances.merge(toId, amount, Long::sum);
+                    deltas.merge(fromId, -amount, Long::sum);
+                    deltas.merge(toId, amount, Long::sum);
+                    applied.add(request);
+                    status = TransferResult.Status.SUCCESS;
+                }
+                results.add(new TransferResult(request, status));
+            }
+
+            if (!applied.isEmpty()) {
+                try (PreparedStatement updateStmt = conn.prepareStatement(SqlStatements.APPLY_BALANCE_DELTA)) {
+                    for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+                        if (delta.getValue() != 0) {
+                            updateStmt.setLong(1, delta.getValue());
+                            updateStmt.setLong(2, delta.getKey());
+                            updateStmt.addBatch();
+                        }
+                    }
+                    updateStmt.executeBatch();
+                }
+
+                try (PreparedStatement insertStmt = conn.prepareStatement(SqlStatements.INSERT_TRANSFER_TRANSACTION)) {
+                    for (TransferRequest request : applied) {
+                        insertStmt.setLong(1, request.getFromAccountId());
+                        insertStmt.setLong(2, request.getToAccountId());
+                        insertStmt.setLong(3, request.getAmount());
+                        insertStmt.addBatch();
+                    }
+                    insertStmt.executeBatch();
+                }
+            }
+
+            conn.commit();
+            return results;
+        } catch (SQLException e) {
+            metrics.recordError(metric, e);
+            try {
+                conn.rollback();
+            } catch (SQLException ex) {
+                LOG.error("Error rolling back transaction", "error", ex.getMessage());
+            }
+            LOG.error("Error applying transfer chunk", "size", chunk.size(), "error", e.getMessage());
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
         }
     }
 
     public List<Loan> getLoansByCustomerId(Long customerId) {
+        long started = System.nanoTime();
         List<Loan> loans = new ArrayList<>();
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM loans WHERE cust_id = ?")) {
+        try (Connection conn = getReadConnection(isCustomerPinned(customerId));
+             PreparedStatement pstmt = conn.prepareStatement(SqlStatements.SELECT_LOANS_BY_CUSTOMER)) {
 
             pstmt.setLong(1, customerId);
 
@@ -320,73 +940,141 @@ public class DatabaseService {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting loans: " + e.getMessage());
+            metrics.recordError("getLoansByCustomerId", e);
+            LOG.error("Error getting loans", "error", e.getMessage());
+        } finally {
+            metrics.record("getLoansByCustomerId", started);
         }
 
         return loans;
     }
 
     public boolean takeLoan(Long customerId, Long amount, Integer branchId) {
-        boolean loanAccountExists = false;
+        long started = System.nanoTime();
+        try {
+            return takeLoanOnConnection(customerId, amount, branchId);
+        } finally {
+            metrics.record("takeLoan", started);
+            accountCache.invalidate(customerId);
+            if (replicas != null) {
+                replicas.pinCustomer(customerId);
+            }
+        }
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(
-                     "SELECT account_id FROM account WHERE customer_id = ? AND type = 'LOAN'")) {
+    private boolean takeLoanOnConnection(Long customerId, Long amount, Integer branchId) {
+        Long loanAccountId = null;
+        try (Connection conn = getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(SqlStatements.SELECT_LOAN_ACCOUNT)) {
 
-            pstmt.setLong(1, customerId);
-            ResultSet rs = pstmt.executeQuery();
-            loanAccountExists = rs.next();
-
-            if (!loanAccountExists) {
-                System.out.println("No loan account found for customer " + customerId + ". Creating one.");
-                try (PreparedStatement createStmt = conn.prepareStatement(
-                        "INSERT INTO account (customer_id, balance, status, type) VALUES (?, 0, 'active', 'LOAN')")) {
-                    createStmt.setLong(1, customerId);
-                    createStmt.executeUpdate();
-                    System.out.println("Loan account created for customer " + customerId);
+                pstmt.setLong(1, customerId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        loanAccountId = rs.getLong("account_id");
+                    }
+                }
+
+                if (loanAccountId == null) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("No loan account found, creating one", "customerId", customerId);
+                    }
+                    try (PreparedStatement createStmt = conn.prepareStatement(SqlStatements.INSERT_LOAN_ACCOUNT, Statement.RETURN_GENERATED_KEYS)) {
+                        createStmt.setLong(1, customerId);
+                        createStmt.executeUpdate();
+                        try (ResultSet keys = createStmt.getGeneratedKeys()) {
+                            if (keys.next()) {
+                                loanAccountId = keys.getLong(1);
+                            }
+                        }
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Loan account created", "customerId", customerId, "accountId", loanAccountId);
+                        }
+                    }
                 }
+            } catch (SQLException e) {
+                metrics.recordError("takeLoan", e);
+                LOG.error("Error checking/creating loan account", e);
+                return false;
             }
-        } catch (SQLException e) {
-            System.err.println("Error checking/creating loan account: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
 
-        try (Connection conn = getConnection();
-             CallableStatement cstmt = conn.prepareCall("{CALL TakeLoan(?, ?, ?)}")) {
+            if (ledger != null) {
+                return takeLoanThroughLedger(conn, customerId, amount, branchId, loanAccountId);
+            }
 
-            cstmt.setLong(1, customerId);
-            cstmt.setLong(2, amount);
-            cstmt.setInt(3, branchId);
+            try (CallableStatement cstmt = conn.prepareCall(SqlStatements.CALL_TAKE_LOAN)) {
 
-            cstmt.execute();
-            System.out.println("Loan successfully created for customer " + customerId + " with amount " + amount);
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Error taking loan: " + e.getMessage());
+                cstmt.setLong(1, customerId);
+                cstmt.setLong(2, amount);
+                cstmt.setInt(3, branchId);
 
-            if (e.getMessage().contains("No LOAN account found")) {
-                System.err.println("No loan account found for the customer despite our attempt to create one");
-            } else if (e.getMessage().contains("Invalid customer ID")) {
-                System.err.println("Invalid customer ID: " + customerId);
+                cstmt.execute();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Loan created", "customerId", customerId, "amount", amount, "branchId", branchId);
+                }
+                return true;
+            } catch (SQLException e) {
+                metrics.recordError("takeLoan", e);
+                if (e.getMessage().contains("No LOAN account found")) {
+                    LOG.error("No loan account found for the customer despite our attempt to create one", "customerId", customerId);
+                } else if (e.getMessage().contains("Invalid customer ID")) {
+                    LOG.error("Invalid customer ID", "customerId", customerId);
+                }
+                LOG.error("Error taking loan", e, "customerId", customerId, "amount", amount);
+                return false;
             }
-
-            e.printStackTrace();
+        } catch (SQLException e) {
+            metrics.recordError("takeLoan", e);
+            LOG.error("Error taking loan", "error", e.getMessage());
             return false;
         }
     }
 
+    private boolean takeLoanThroughLedger(Connection conn, Long customerId, Long amount, Integer branchId,
+                                          Long loanAccountId) throws SQLException {
+        if (loanAccountId == null) {
+            return false;
+        }
+        conn.setAutoCommit(false);
+        try {
+            try (PreparedStatement loanStmt = conn.prepareStatement(SqlStatements.INSERT_LOAN)) {
+                loanStmt.setLong(1, customerId);
+                loanStmt.setLong(2, amount);
+                loanStmt.setInt(3, branchId);
+                loanStmt.executeUpdate();
+            }
+            if (!ledger.deposit(loanAccountId, amount, LedgerPosting.LOAN_DEPOSIT).isApplied()) {
+                conn.rollback();
+                LOG.error("Could not credit loan account, loan rolled back", "customerId", customerId, "amount", amount);
+                return false;
+            }
+            try {
+                conn.commit();
+            } catch (SQLException e) {
+                LOG.error("Loan account credited but the loan row was not committed", e,
+                        "customerId", customerId, "accountId", loanAccountId, "amount", amount);
+                throw e;
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Loan created", "customerId", customerId, "amount", amount, "branchId", branchId);
+            }
+            return true;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
 
     public List<Loan> getAllLoans() {
+        long started = System.nanoTime();
         List<Loan> loans = FXCollections.observableArrayList();
-        String sql = "SELECT * FROM loans";
-
-        System.out.println("Attempting to retrieve all loans...");
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection(false);
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = stmt.executeQuery(SqlStatements.SELECT_ALL_LOANS)) {
 
+            boolean traceRows = LOG.isTraceEnabled();
             int count = 0;
             while (rs.next()) {
                 count++;
@@ -397,109 +1085,119 @@ public class DatabaseService {
                         rs.getInt("branch_id")
                 );
                 loans.add(loan);
-                System.out.println("Retrieved loan: ID=" + loan.getLoanId() +
-                        ", Customer ID=" + loan.getCustId() +
-                        ", Amount=" + loan.getAmount());
+                if (traceRows) {
+                    LOG.trace("Retrieved loan", "loanId", loan.getLoanId(), "customerId", loan.getCustId(), "amount", loan.getAmount());
+                }
             }
 
-            System.out.println("Total loans retrieved: " + count);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Retrieved all loans", "count", count);
+            }
 
         } catch (SQLException e) {
-            System.err.println("Error retrieving loans: " + e.getMessage());
-            e.printStackTrace();
+            metrics.recordError("getAllLoans", e);
+            LOG.error("Error retrieving loans", e);
+        } finally {
+            metrics.record("getAllLoans", started);
         }
 
         return loans;
     }
 
 
-    public boolean deleteCustomer(Long customerId) {
-        Connection conn = null;
-        PreparedStatement accountStmt = null;
-        PreparedStatement loanStmt = null;
-        PreparedStatement customerStmt = null;
-        PreparedStatement authStmt = null;
-        ResultSet rs = null;
-
-        try {
-            conn = getConnection();
-            conn.setAutoCommit(false);
+    public List<LoanWithCustomerInfo> getAllLoansWithCustomerInfo() {
+        long started = System.nanoTime();
+        List<LoanWithCustomerInfo> loans = new ArrayList<>();
 
-            String getUidSql = "SELECT uid FROM customers WHERE id = ?";
-            PreparedStatement getUidStmt = conn.prepareStatement(getUidSql);
-            getUidStmt.setLong(1, customerId);
-            rs = getUidStmt.executeQuery();
+        try (Connection conn = getReadConnection(false);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SqlStatements.SELECT_LOANS_WITH_CUSTOMER)) {
 
-            String uid = null;
-            if (rs.next()) {
-                uid = rs.getString("uid");
-            } else {
-                conn.rollback();
-                return false;
+            while (rs.next()) {
+                int branchId = rs.getInt("branch_id");
+                Integer branch = rs.wasNull() ? null : branchId;
+                loans.add(new LoanWithCustomerInfo(
+                        rs.getLong("loan_id"),
+                        rs.getLong("cust_id"),
+                        rs.getString("first_name") + " " + rs.getString("last_name"),
+                        rs.getLong("amount"),
+                        branch
+                ));
             }
+        } catch (SQLException e) {
+            metrics.recordError("getAllLoansWithCustomerInfo", e);
+            LOG.error("Error retrieving loans with customer info", "error", e.getMessage());
+        } finally {
+            metrics.record("getAllLoansWithCustomerInfo", started);
+        }
 
-            String transactionSql = "DELETE FROM transactions WHERE fromID IN (SELECT account_id FROM account WHERE customer_id = ?) " +
-                    "OR toID IN (SELECT account_id FROM account WHERE customer_id = ?)";
-            PreparedStatement transStmt = conn.prepareStatement(transactionSql);
-            transStmt.setLong(1, customerId);
-            transStmt.setLong(2, customerId);
-            transStmt.executeUpdate();
-
-
-            String accountSql = "DELETE FROM account WHERE customer_id = ?";
-            accountStmt = conn.prepareStatement(accountSql);
-            accountStmt.setLong(1, customerId);
-            accountStmt.executeUpdate();
-
-
-            String loanSql = "DELETE FROM loans WHERE cust_id = ?";
-            loanStmt = conn.prepareStatement(loanSql);
-            loanStmt.setLong(1, customerId);
-            loanStmt.executeUpdate();
-
-
-            String customerSql = "DELETE FROM customers WHERE id = ?";
-            customerStmt = conn.prepareStatement(customerSql);
-            customerStmt.setLong(1, customerId);
-            int customerRows = customerStmt.executeUpdate();
-
-
-            if (uid != null) {
-                String authSql = "DELETE FROM auth_users WHERE id = ?";
-                authStmt = conn.prepareStatement(authSql);
-                authStmt.setString(1, uid);
-                authStmt.executeUpdate();
-            }
+        return loans;
+    }
 
-            conn.commit();
-            return customerRows > 0;
 
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    System.err.println("Error rolling back transaction: " + ex.getMessage());
+    public boolean verifyCustomerPassword(Long customerId, String password) {
+        long started = System.nanoTime();
+        String stored;
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SqlStatements.SELECT_CUSTOMER_PASSWORD)) {
+            pstmt.setLong(1, customerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
                 }
+                stored = rs.getString("password");
             }
-            System.err.println("Error deleting customer: " + e.getMessage());
-            e.printStackTrace();
+        } catch (SQLException e) {
+            metrics.recordError("verifyCustomerPassword", e);
+            LOG.error("Error loading customer password", "customerId", customerId, "error", e.getMessage());
             return false;
         } finally {
-            try {
-                if (rs != null) rs.close();
-                if (accountStmt != null) accountStmt.close();
-                if (loanStmt != null) loanStmt.close();
-                if (customerStmt != null) customerStmt.close();
-                if (authStmt != null) authStmt.close();
-                if (conn != null) {
-                    conn.setAutoCommit(true); 
-                    conn.close();
-                }
-            } catch (SQLException e) {
-                System.err.println("Error closing resources: " + e.getMessage());
+            metrics.record("verifyCustomerPassword", started);
+        }
+
+        if (!credentials.matches(password, stored)) {
+            return false;
+        }
+        if (credentials.needsRehash(stored)) {
+            rehashCustomerPassword(customerId, password, stored);
+        }
+        return true;
+    }
+
+    private void rehashCustomerPassword(Long customerId, String password, String stored) {
+        long started = System.nanoTime();
+        String passwordHash;
+        try {
+            passwordHash = credentials.hash(password);
+        } catch (RejectedExecutionException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Skipping password rehash, credential queue is full", "customerId", customerId);
             }
+            return;
         }
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SqlStatements.UPDATE_CUSTOMER_PASSWORD)) {
+            pstmt.setString(1, passwordHash);
+            pstmt.setLong(2, customerId);
+            pstmt.setString(3, stored);
+            if (pstmt.executeUpdate() > 0) {
+                invalidateCustomer(customerId);
+                LOG.info("Customer password rehashed", "customerId", customerId, "iterations", credentials.getIterations());
+            }
+        } catch (SQLException e) {
+            metrics.recordError("rehashCustomerPassword", e);
+            LOG.warn("Could not rehash customer password", "customerId", customerId, "error", e.getMessage());
+        } finally {
+            metrics.record("rehashCustomerPassword", started);
+        }
+    }
+
+    public boolean deleteCustomer(Long customerId) {
+        return deletionEngine.deleteCustomer(customerId);
+    }
+
+    public DeletionSummary deleteCustomers(List<Long> customerIds) {
+        return deletionEngine.deleteCustomers(customerIds);
     }
 
 }
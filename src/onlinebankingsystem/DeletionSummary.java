@@ -0,0 +1,30 @@
+package onlinebankingsystem;
+
+public class DeletionSummary {
+    private final int customersRequested;
+    private final int customersDeleted;
+    private final long transactionsDeleted;
+    private final long chunks;
+    private final long elapsedMillis;
+
+    public DeletionSummary(int customersRequested, int customersDeleted, long transactionsDeleted, long chunks,
+                           long elapsedMillis) {
+        this.customersRequested = customersRequested;
+        this.customersDeleted = customersDeleted;
+        this.transactionsDeleted = transactionsDeleted;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getCustomersRequested() { return customersRequested; }
+    public int getCustomersDeleted() { return customersDeleted; }
+    public long getTransactionsDeleted() { return transactionsDeleted; }
+    public long getChunks() { return chunks; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("customers=%d/%d, transactions=%d, chunks=%d, elapsed=%d ms",
+                customersDeleted, customersRequested, transactionsDeleted, chunks, elapsedMillis);
+    }
+}
@@ -0,0 +1,33 @@
+package onlinebankingsystem;
+
+public class ExportSummary {
+    private final int accounts;
+    private final int failedAccounts;
+    private final long rows;
+    private final long bytes;
+    private final long elapsedMillis;
+
+    public ExportSummary(int accounts, int failedAccounts, long rows, long bytes, long elapsedMillis) {
+        this.accounts = accounts;
+        this.failedAccounts = failedAccounts;
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getAccounts() { return accounts; }
+    public int getFailedAccounts() { return failedAccounts; }
+    public long getRows() { return rows; }
+    public long getBytes() { return bytes; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : rows * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("accounts=%d, failed=%d, rows=%d, bytes=%d, elapsed=%d ms, %.0f rows/sec",
+                accounts, failedAccounts, rows, bytes, elapsedMillis, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,30 @@
+package onlinebankingsystem;
+
+public class ImportSummary {
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final long elapsedMillis;
+
+    public ImportSummary(long rowsRead, long imported, long rejected, long elapsedMillis) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsRead() { return rowsRead; }
+    public long getImported() { return imported; }
+    public long getRejected() { return rejected; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : imported * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rows=%d, imported=%d, rejected=%d, elapsed=%d ms, %.0f imported/sec",
+                rowsRead, imported, rejected, elapsedMillis, getRowsPerSecond());
+    }
+}
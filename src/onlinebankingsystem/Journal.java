@@ -0,0 +1,357 @@
+package onlinebankingsystem;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+final class Journal implements AutoCloseable {
+    private static final Log LOG = Log.get(Journal.class);
+    private static final String SUFFIX = ".journal";
+    private static final int PAYLOAD_BYTES = 8 + 1 + 8 + 8 + 8;
+    private static final int RECORD_BYTES = 4 + PAYLOAD_BYTES + 4;
+    private static final long NO_ACCOUNT = -1L;
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.warn("Cannot unmap journal segments, released segments stay mapped until collected", "error", e.getMessage());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long idleParkNanos;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Object durableMonitor = new Object();
+    private final Object mappingLock = new Object();
+    private final Thread syncer;
+
+    private Segment active;
+    private long nextSequence = 1;
+    private volatile long durableSequence;
+    private volatile IOException syncFailure;
+    private volatile boolean running = true;
+
+    Journal(Path directory, int segmentBytes, long idleParkMicros) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = Math.max(RECORD_BYTES * 16, segmentBytes);
+        this.idleParkNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(1, idleParkMicros));
+        Files.createDirectories(directory);
+        recover();
+        this.durableSequence = nextSequence - 1;
+        this.syncer = new Thread(this::runSyncer, "journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    synchronized long append(String type, Long fromAccountId, Long toAccountId, long amount) throws IOException {
+        if (syncFailure != null) {
+            throw new IOException("Journal is read-only after a failed sync", syncFailure);
+        }
+        if (!running) {
+            throw new IOException("Journal is closed");
+        }
+        if (active == null || active.buffer.remaining() < RECORD_BYTES) {
+            roll();
+        }
+        long sequence = nextSequence;
+        MappedByteBuffer buffer = active.buffer;
+        int start = buffer.position();
+        buffer.putInt(PAYLOAD_BYTES);
+        buffer.putLong(sequence);
+        buffer.put(LedgerPosting.typeCode(type));
+        buffer.putLong(fromAccountId == null ? NO_ACCOUNT : fromAccountId);
+        buffer.putLong(toAccountId == null ? NO_ACCOUNT : toAccountId);
+        buffer.putLong(amount);
+        buffer.putInt(checksum(buffer, start + 4));
+        nextSequence++;
+        return sequence;
+    }
+
+    void awaitDurable(long sequence) throws IOException {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        LockSupport.unpark(syncer);
+        synchronized (durableMonitor) {
+            while (durableSequence < sequence) {
+                if (syncFailure != null) {
+                    throw syncFailure;
+                }
+                if (!running) {
+                    throw new IOException("Journal closed before sequence " + sequence + " was forced");
+                }
+                try {
+                    durableMonitor.wait(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted waiting for journal sync", e);
+                }
+            }
+        }
+    }
+
+    synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    synchronized void advanceTo(long sequence) throws IOException {
+        if (sequence < nextSequence) {
+            return;
+        }
+        LOG.warn("Journal is behind the database checkpoint, starting a new segment", "journal", nextSequence - 1, "checkpoint", sequence);
+        nextSequence = sequence + 1;
+        roll();
+        durableSequence = Math.max(durableSequence, sequence);
+    }
+
+    synchronized List<LedgerPosting> readAfter(long checkpoint) {
+        List<LedgerPosting> postings = new ArrayList<>();
+        for (Segment segment : segments) {
+            scan(segment.buffer.duplicate().position(0), segment.firstSequence, postings, checkpoint);
+        }
+        return postings;
+    }
+
+    synchronized void release(long checkpoint) {
+        while (segments.size() > 1 && segments.get(1).firstSequence - 1 <= checkpoint) {
+            Segment released = segments.remove(0);
+            try {
+                synchronized (mappingLock) {
+                    released.close();
+                }
+                Files.deleteIfExists(released.path);
+            } catch (IOException e) {
+                LOG.warn("Could not delete journal segment", "path", released.path, "error", e.getMessage());
+            }
+        }
+    }
+
+    synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(syncer);
+        try {
+            syncer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            for (Segment segment : segments) {
+                try {
+                    synchronized (mappingLock) {
+                        segment.buffer.force();
+                        segment.close();
+                    }
+                } catch (IOException e) {
+                    LOG.error("Error closing journal segment", "path", segment.path, "error", e.getMessage());
+                }
+            }
+            segments.clear();
+            active = null;
+        }
+        synchronized (durableMonitor) {
+            durableMonitor.notifyAll();
+        }
+    }
+
+    private void runSyncer() {
+        while (running) {
+            long target;
+            Segment segment;
+            int from;
+            int to;
+            synchronized (this) {
+                target = nextSequence - 1;
+                if (target <= durableSequence || active == null) {
+                    segment = null;
+                    from = to = 0;
+                } else {
+                    segment = active;
+                    from = segment.forcedPosition;
+                    to = segment.buffer.position();
+                    segment.forcedPosition = to;
+                }
+            }
+            if (segment == null) {
+                LockSupport.parkNanos(this, idleParkNanos);
+                continue;
+            }
+            try {
+                if (to > from) {
+                    synchronized (mappingLock) {
+                        if (segment.closed) {
+                            continue;
+                        }
+                        segment.buffer.force(from, to - from);
+                    }
+                }
+                synchronized (this) {
+                    durableSequence = Math.max(durableSequence, target);
+                }
+            } catch (RuntimeException e) {
+                syncFailure = new IOException("Could not force journal", e);
+                LOG.error("Could not force journal, refusing further appends", e);
+                synchronized (durableMonitor) {
+                    durableMonitor.notifyAll();
+                }
+                return;
+            }
+            synchronized (durableMonitor) {
+                durableMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        boolean complete = true;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long firstSequence = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            if (!complete || (!segments.isEmpty() && firstSequence != nextSequence)) {
+                Path quarantined = file.resolveSibling(name + ".corrupt");
+                LOG.error("Journal segment follows a torn or missing record, moving it aside",
+                        "path", file, "expectedSequence", nextSequence, "movedTo", quarantined);
+                Files.move(file, quarantined, StandardCopyOption.REPLACE_EXISTING);
+                complete = false;
+                continue;
+            }
+            Segment segment = Segment.open(file, segmentBytes, firstSequence);
+            nextSequence = scan(segment.buffer, firstSequence, null, Long.MAX_VALUE) + 1;
+            segments.add(segment);
+            complete = segment.buffer.remaining() < RECORD_BYTES;
+        }
+        if (!segments.isEmpty()) {
+            active = segments.get(segments.size() - 1);
+            int end = active.buffer.position();
+            for (int i = end; i < active.buffer.limit(); i++) {
+                if (active.buffer.get(i) != 0) {
+                    for (int j = end; j < active.buffer.limit(); j++) {
+                        active.buffer.put(j, (byte) 0);
+                    }
+                    active.buffer.force();
+                    break;
+                }
+            }
+            active.forcedPosition = end;
+        }
+        LOG.info("Journal opened", "directory", directory, "segments", segments.size(), "lastSequence", nextSequence - 1);
+    }
+
+    private static long scan(ByteBuffer buffer, long firstSequence, List<LedgerPosting> out, long checkpoint) {
+        long expected = firstSequence;
+        while (buffer.remaining() >= RECORD_BYTES) {
+            int start = buffer.position();
+            if (buffer.getInt(start) != PAYLOAD_BYTES
+                    || buffer.getLong(start + 4) != expected
+                    || buffer.getInt(start + 4 + PAYLOAD_BYTES) != checksum(buffer, start + 4)) {
+                break;
+            }
+            String type = LedgerPosting.typeName(buffer.get(start + 12));
+            if (type == null) {
+                break;
+            }
+            if (out != null && expected > checkpoint) {
+                long from = buffer.getLong(start + 13);
+                long to = buffer.getLong(start + 21);
+                out.add(new LedgerPosting(expected, type, from == NO_ACCOUNT ? null : from,
+                        to == NO_ACCOUNT ? null : to, buffer.getLong(start + 29)));
+            }
+            buffer.position(start + RECORD_BYTES);
+            expected++;
+        }
+        return expected - 1;
+    }
+
+    private static int checksum(ByteBuffer buffer, int payloadStart) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(payloadStart).limit(payloadStart + PAYLOAD_BYTES));
+        return (int) crc.getValue();
+    }
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.buffer.force();
+            durableSequence = Math.max(durableSequence, nextSequence - 1);
+        }
+        Path file = directory.resolve(String.format("%020d%s", nextSequence, SUFFIX));
+        active = Segment.open(file, segmentBytes, nextSequence);
+        segments.add(active);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Journal segment started", "path", file);
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final long firstSequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int forcedPosition;
+        private boolean closed;
+
+        private Segment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, int segmentBytes, long firstSequence) throws IOException {
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                long size = Math.max(file.length(), segmentBytes);
+                file.setLength(size);
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                return new Segment(path, firstSequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        void close() throws IOException {
+            closed = true;
+            channel.close();
+            if (INVOKE_CLEANER != null) {
+                try {
+                    INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                } catch (ReflectiveOperationException e) {
+                    LOG.warn("Could not unmap journal segment", "path", path, "error", e.getMessage());
+                }
+            }
+        }
+    }
+}
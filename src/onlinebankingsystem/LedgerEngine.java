@@ -0,0 +1,565 @@
+package onlinebankingsystem;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class LedgerEngine implements AutoCloseable {
+    private static final Log LOG = Log.get(LedgerEngine.class);
+    private static final long RETRY_BACKOFF_MS = 500;
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseMetrics metrics;
+    private final Map<Long, LedgerAccount> accounts = new ConcurrentHashMap<>();
+    private final Set<Long> retiredCustomers = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] stripes;
+    private final BlockingQueue<LedgerPosting> pending = new LinkedBlockingQueue<>();
+    private final Semaphore pendingPermits;
+    private final int maxPending;
+    private final int flushBatchSize;
+    private final long flushIntervalMs;
+    private final long enqueueTimeoutMs;
+    private final long shutdownTimeoutMs;
+    private final AtomicLong sequencer = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Journal journal;
+    private final Object persistedMonitor = new Object();
+    private final CountDownLatch recovered = new CountDownLatch(1);
+    private final Thread flusher;
+    private volatile long persistedThrough;
+    private volatile boolean running = true;
+
+    public LedgerEngine(ConnectionPool connectionPool, DatabaseMetrics metrics, Properties props) {
+        this.connectionPool = connectionPool;
+        this.metrics = metrics;
+        int stripeCount = Integer.highestOneBit(Math.max(1, Config.getInt(props, "ledger.lockStripes", 1024)));
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.maxPending = Math.max(1, Config.getInt(props, "ledger.maxPending", 100_000));
+        this.pendingPermits = new Semaphore(maxPending);
+        this.flushBatchSize = Math.max(1, Config.getInt(props, "ledger.flushBatchSize", 1000));
+        this.flushIntervalMs = Math.max(1, Config.getLong(props, "ledger.flushIntervalMs", 5));
+        this.enqueueTimeoutMs = Math.max(0, Config.getLong(props, "ledger.enqueueTimeoutMs", 1_000));
+        this.shutdownTimeoutMs = Config.getLong(props, "ledger.shutdownTimeoutMs", 30_000);
+
+        if (Config.getBoolean(props, "journal.enabled", false)) {
+            Path directory = Paths.get(props.getProperty("journal.dir", "journal"));
+            try {
+                this.journal = new Journal(directory,
+                        Config.getInt(props, "journal.segmentBytes", 64 * 1024 * 1024),
+                        Config.getLong(props, "journal.syncIdleMicros", 200));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not open ledger journal in " + directory, e);
+            }
+        } else {
+            this.journal = null;
+            recovered.countDown();
+        }
+
+        this.flusher = new Thread(this::runFlusher, "ledger-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public TransferResult.Status transfer(Long fromAccountId, Long toAccountId, Long amount) {
+        if (amount == null || amount <= 0) {
+            return TransferResult.Status.FAILED;
+        }
+        if (fromAccountId == null || toAccountId == null) {
+            return TransferResult.Status.INVALID_ACCOUNT;
+        }
+        LedgerAccount from;
+        LedgerAccount to;
+        try {
+            from = account(fromAccountId);
+            to = account(toAccountId);
+        } catch (SQLException e) {
+            metrics.recordError("ledgerLoad", e);
+            LOG.error("Error loading ledger account", "from", fromAccountId, "to", toAccountId, "error", e.getMessage());
+            return TransferResult.Status.FAILED;
+        }
+        if (from == null || to == null) {
+            return TransferResult.Status.INVALID_ACCOUNT;
+        }
+        if (!acquirePendingPermit()) {
+            return TransferResult.Status.FAILED;
+        }
+
+        long sequence = 0;
+        ReentrantLock first = stripes[Math.min(stripe(fromAccountId), stripe(toAccountId))];
+        ReentrantLock second = stripes[Math.max(stripe(fromAccountId), stripe(toAccountId))];
+        first.lock();
+        if (second != first) {
+            second.lock();
+        }
+        try {
+            if (from.retired || to.retired) {
+                return TransferResult.Status.INVALID_ACCOUNT;
+            }
+            if (from.balance < amount) {
+                return TransferResult.Status.INSUFFICIENT_FUNDS;
+            }
+            sequence = enqueue(LedgerPosting.TRANSFER, fromAccountId, toAccountId, amount);
+            from.balance -= amount;
+            to.balance += amount;
+        } catch (IOException e) {
+            LOG.error("Could not journal transfer", "from", fromAccountId, "to", toAccountId, "error", e.getMessage());
+            return TransferResult.Status.FAILED;
+        } finally {
+            if (sequence == 0) {
+                pendingPermits.release();
+            }
+            if (second != first) {
+                second.unlock();
+            }
+            first.unlock();
+        }
+        return awaitDurable(sequence);
+    }
+
+    public TransferResult.Status deposit(Long accountId, Long amount, String type) {
+        if (amount == null || amount <= 0) {
+            return TransferResult.Status.FAILED;
+        }
+        if (accountId == null) {
+            return TransferResult.Status.INVALID_ACCOUNT;
+        }
+        LedgerAccount account;
+        try {
+            account = account(accountId);
+        } catch (SQLException e) {
+            metrics.recordError("ledgerLoad", e);
+            LOG.error("Error loading ledger account", "accountId", accountId, "error", e.getMessage());
+            return TransferResult.Status.FAILED;
+        }
+        if (account == null) {
+            return TransferResult.Status.INVALID_ACCOUNT;
+        }
+        if (!acquirePendingPermit()) {
+            return TransferResult.Status.FAILED;
+        }
+        long sequence = 0;
+        ReentrantLock lock = stripes[stripe(accountId)];
+        lock.lock();
+        try {
+            if (account.retired) {
+                return TransferResult.Status.INVALID_ACCOUNT;
+            }
+            sequence = enqueue(type, null, accountId, amount);
+            account.balance += amount;
+        } catch (IOException e) {
+            LOG.error("Could not journal deposit", "accountId", accountId, "error", e.getMessage());
+            return TransferResult.Status.FAILED;
+        } finally {
+            if (sequence == 0) {
+                pendingPermits.release();
+            }
+            lock.unlock();
+        }
+        return awaitDurable(sequence);
+    }
+
+    public Long getBalance(Long accountId) {
+        LedgerAccount account = accounts.get(accountId);
+        if (account == null) {
+            return null;
+        }
+        ReentrantLock lock = stripes[stripe(accountId)];
+        lock.lock();
+        try {
+            return account.retired ? null : account.balance;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void applyBalances(List<Account> accountList) {
+        for (Account account : accountList) {
+            Long balance = getBalance(account.getAccountId());
+            if (balance != null) {
+                account.setBalance(balance);
+            }
+        }
+    }
+
+    public boolean retireCustomer(Long customerId) {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+        try {
+            retiredCustomers.add(customerId);
+            for (LedgerAccount account : accounts.values()) {
+                if (customerId.equals(account.customerId)) {
+                    account.retired = true;
+                }
+            }
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+        return awaitPersisted(shutdownTimeoutMs);
+    }
+
+    public void forgetCustomer(Long customerId, boolean deleted) {
+        accounts.values().removeIf(account -> customerId.equals(account.customerId));
+        if (!deleted) {
+            retiredCustomers.remove(customerId);
+        }
+    }
+
+    public boolean awaitPersisted(long timeoutMs) {
+        return awaitPersisted(journal == null ? sequencer.get() : journal.getLastSequence(), timeoutMs);
+    }
+
+    private boolean awaitPersisted(long sequence, long timeoutMs) {
+        long started = System.nanoTime();
+        synchronized (persistedMonitor) {
+            while (persistedThrough < sequence) {
+                long remainingMs = timeoutMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                if (remainingMs <= 0 || !flusher.isAlive()) {
+                    return false;
+                }
+                try {
+                    persistedMonitor.wait(Math.min(remainingMs, 100));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public long getAppliedCount() { return applied.get(); }
+
+    public long getPersistedCount() { return persisted.get(); }
+
+    public int getPendingCount() { return maxPending - pendingPermits.availablePermits(); }
+
+    public long getRejectedCount() { return rejected.get(); }
+
+    public int getLoadedAccountCount() { return accounts.size(); }
+
+    public String getStatistics() {
+        return String.format("accounts=%d, applied=%d, persisted=%d, pending=%d, rejected=%d",
+                accounts.size(), applied.get(), persisted.get(), getPendingCount(), rejected.get());
+    }
+
+    private LedgerAccount account(Long accountId) throws SQLException {
+        LedgerAccount account = accounts.get(accountId);
+        if (account != null) {
+            return account;
+        }
+        try {
+            if (!recovered.await(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Ledger journal recovery has not finished");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for ledger journal recovery", e);
+        }
+        LedgerAccount loaded;
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SqlStatements.SELECT_LEDGER_ACCOUNT)) {
+            stmt.setLong(1, accountId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                loaded = new LedgerAccount(rs.getLong("customer_id"), rs.getLong("balance"));
+            }
+        }
+        ReentrantLock lock = stripes[stripe(accountId)];
+        lock.lock();
+        try {
+            account = accounts.get(accountId);
+            if (account != null) {
+                return account;
+            }
+            loaded.retired = retiredCustomers.contains(loaded.customerId);
+            accounts.put(accountId, loaded);
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int stripe(long accountId) {
+        int h = Long.hashCode(accountId) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    private boolean acquirePendingPermit() {
+        try {
+            if (pendingPermits.tryAcquire(enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.incrementAndGet();
+        LOG.warn("Ledger backlog is full, rejecting posting", "pending", getPendingCount());
+        return false;
+    }
+
+    private long enqueue(String type, Long fromAccountId, Long toAccountId, long amount) throws IOException {
+        long sequence = journal == null
+                ? sequencer.incrementAndGet()
+                : journal.append(type, fromAccountId, toAccountId, amount);
+        pending.offer(new LedgerPosting(sequence, type, fromAccountId, toAccountId, amount));
+        applied.incrementAndGet();
+        return sequence;
+    }
+
+    // An enqueued posting has already moved the in-memory balances and will be flushed, so it is never FAILED.
+    private TransferResult.Status awaitDurable(long sequence) {
+        if (journal == null) {
+            return TransferResult.Status.SUCCESS;
+        }
+        try {
+            journal.awaitDurable(sequence);
+            return TransferResult.Status.SUCCESS;
+        } catch (IOException e) {
+            LOG.error("Journal sync failed, waiting for the database flush instead", "sequence", sequence, "error", e.getMessage());
+        }
+        if (awaitPersisted(sequence, Long.MAX_VALUE)) {
+            return TransferResult.Status.SUCCESS;
+        }
+        LOG.error("Ledger stopped before the posting was persisted, outcome depends on journal replay", "sequence", sequence);
+        return TransferResult.Status.PENDING;
+    }
+
+    private void recoverJournal() {
+        while (running) {
+            try (Connection conn = connectionPool.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(SqlStatements.SELECT_JOURNAL_CHECKPOINT)) {
+                long checkpoint = rs.next() ? rs.getLong(1) : 0;
+                journal.advanceTo(checkpoint);
+                List<LedgerPosting> postings = journal.readAfter(checkpoint);
+                for (int from = 0; from < postings.size(); from += flushBatchSize) {
+                    if (!persistWithRetry(postings.subList(from, Math.min(from + flushBatchSize, postings.size())))) {
+                        return;
+                    }
+                }
+                journal.release(journal.getLastSequence());
+                LOG.info("Journal replayed", "checkpoint", checkpoint, "postings", postings.size());
+                recovered.countDown();
+                return;
+            } catch (SQLException | IOException e) {
+                LOG.error("Journal recovery failed, will retry", "error", e.getMessage());
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void runFlusher() {
+        if (journal != null) {
+            recoverJournal();
+            markPersisted(journal.getLastSequence());
+        }
+        TreeMap<Long, LedgerPosting> outOfOrder = new TreeMap<>();
+        List<LedgerPosting> drained = new ArrayList<>(flushBatchSize);
+        List<LedgerPosting> batch = new ArrayList<>(flushBatchSize);
+        while (running || !pending.isEmpty() || !outOfOrder.isEmpty()) {
+            try {
+                LedgerPosting first = pending.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    drained.add(first);
+                }
+            } catch (InterruptedException e) {
+                continue;
+            }
+            pending.drainTo(drained, flushBatchSize);
+            for (LedgerPosting posting : drained) {
+                outOfOrder.put(posting.sequence, posting);
+            }
+            drained.clear();
+
+            // Sequences are taken under the stripe locks but offered after, so postings from different
+            // stripes can arrive out of order; only the contiguous prefix may move the checkpoint.
+            long next = persistedThrough + 1;
+            while (!outOfOrder.isEmpty() && outOfOrder.firstKey() == next) {
+                batch.add(outOfOrder.pollFirstEntry().getValue());
+                next++;
+                if (batch.size() == flushBatchSize) {
+                    if (!flush(batch)) {
+                        return;
+                    }
+                }
+            }
+            if (!flush(batch)) {
+                return;
+            }
+        }
+    }
+
+    private boolean flush(List<LedgerPosting> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        if (!persistWithRetry(batch)) {
+            return false;
+        }
+        pendingPermits.release(batch.size());
+        markPersisted(batch.get(batch.size() - 1).sequence);
+        batch.clear();
+        return true;
+    }
+
+    private void markPersisted(long sequence) {
+        synchronized (persistedMonitor) {
+            persistedThrough = sequence;
+            persistedMonitor.notifyAll();
+        }
+    }
+
+    private boolean persistWithRetry(List<LedgerPosting> postings) {
+        while (!postings.isEmpty()) {
+            if (persist(postings)) {
+                persisted.addAndGet(postings.size());
+                return true;
+            }
+            if (!running) {
+                LOG.error("Giving up on unpersisted ledger postings", "postings", getPendingCount());
+                return false;
+            }
+            try {
+                Thread.sleep(RETRY_BACKOFF_MS);
+            } catch (InterruptedException e) {
+                // close() interrupts to hurry the final flush; retry straight away.
+            }
+        }
+        return true;
+    }
+
+    private boolean persist(List<LedgerPosting> batch) {
+        long started = System.nanoTime();
+        TreeMap<Long, Long> deltas = new TreeMap<>();
+        long checkpoint = 0;
+        for (LedgerPosting posting : batch) {
+            checkpoint = Math.max(checkpoint, posting.sequence);
+            if (posting.fromAccountId != null) {
+                deltas.merge(posting.fromAccountId, -posting.amount, Long::sum);
+            }
+            deltas.merge(posting.toAccountId, posting.amount, Long::sum);
+        }
+
+        try (Connection conn = connectionPool.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement updateStmt = conn.prepareStatement(SqlStatements.APPLY_BALANCE_DELTA);
+                 PreparedStatement transferStmt = conn.prepareStatement(SqlStatements.INSERT_TRANSFER_TRANSACTION);
+                 PreparedStatement depositStmt = conn.prepareStatement(SqlStatements.INSERT_DEPOSIT_TRANSACTION)) {
+                for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+                    if (delta.getValue() != 0) {
+                        updateStmt.setLong(1, delta.getValue());
+                        updateStmt.setLong(2, delta.getKey());
+                        updateStmt.addBatch();
+                    }
+                }
+                boolean transfers = false;
+                boolean deposits = false;
+                for (LedgerPosting posting : batch) {
+                    if (posting.fromAccountId != null) {
+                        transferStmt.setLong(1, posting.fromAccountId);
+                        transferStmt.setLong(2, posting.toAccountId);
+                        transferStmt.setLong(3, posting.amount);
+                        transferStmt.addBatch();
+                        transfers = true;
+                    } else {
+                        depositStmt.setString(1, posting.type);
+                        depositStmt.setLong(2, posting.toAccountId);
+                        depositStmt.setLong(3, posting.amount);
+                        depositStmt.addBatch();
+                        deposits = true;
+                    }
+                }
+                updateStmt.executeBatch();
+                if (transfers) transferStmt.executeBatch();
+                if (deposits) depositStmt.executeBatch();
+                if (journal != null) {
+                    try (PreparedStatement checkpointStmt = conn.prepareStatement(SqlStatements.UPSERT_JOURNAL_CHECKPOINT)) {
+                        checkpointStmt.setLong(1, checkpoint);
+                        checkpointStmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            if (journal != null) {
+                journal.release(checkpoint);
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Persisted ledger postings", "postings", batch.size(), "accounts", deltas.size());
+            }
+            return true;
+        } catch (SQLException e) {
+            metrics.recordError("ledgerFlush", e);
+            LOG.error("Error persisting ledger postings, will retry", "postings", batch.size(), "error", e.getMessage());
+            return false;
+        } finally {
+            metrics.record("ledgerFlush", started);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            LOG.error("Ledger flusher did not finish", "unpersisted", applied.get() - persisted.get());
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        LOG.info("Ledger closed", "statistics", getStatistics());
+    }
+
+    private static class LedgerAccount {
+        private final Long customerId;
+        private long balance;
+        private boolean retired;
+
+        LedgerAccount(Long customerId, long balance) {
+            this.customerId = customerId;
+            this.balance = balance;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package onlinebankingsystem;
+
+final class LedgerPosting {
+    static final String TRANSFER = "transfer";
+    static final String LOAN_DEPOSIT = "loan_deposit";
+
+    final long sequence;
+    final String type;
+    final Long fromAccountId;
+    final Long toAccountId;
+    final long amount;
+
+    LedgerPosting(long sequence, String type, Long fromAccountId, Long toAccountId, long amount) {
+        this.sequence = sequence;
+        this.type = type;
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+    }
+
+    static byte typeCode(String type) {
+        switch (type) {
+            case TRANSFER: return 1;
+            case LOAN_DEPOSIT: return 2;
+            default: throw new IllegalArgumentException("Unknown posting type " + type);
+        }
+    }
+
+    static String typeName(byte code) {
+        switch (code) {
+            case 1: return TRANSFER;
+            case 2: return LOAN_DEPOSIT;
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package onlinebankingsystem;
+
+public class LoanWithCustomerInfo {
+    private Long loanId;
+    private Long customerId;
+    private String customerName;
+    private Long amount;
+    private Integer branchId;
+
+    public LoanWithCustomerInfo(Long loanId, Long customerId, String customerName, Long amount, Integer branchId) {
+        this.loanId = loanId;
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.amount = amount;
+        this.branchId = branchId;
+    }
+
+    public Long getLoanId() { return loanId; }
+    public Long getCustomerId() { return customerId; }
+    public String getCustomerName() { return customerName; }
+    public Long getAmount() { return amount; }
+    public Integer getBranchId() { return branchId; }
+}
@@ -0,0 +1,182 @@
+package onlinebankingsystem;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public final class Log {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int WARN_OFFER_ATTEMPTS = 50;
+    private static final long WARN_OFFER_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Map<String, Log> LOGGERS = new ConcurrentHashMap<>();
+    private static final Object LOCK = new Object();
+
+    private static volatile LogRingBuffer buffer;
+    private static LogWriter writer;
+    private static String outputSettings;
+    private static LogLevel defaultLevel = LogLevel.INFO;
+    private static Properties levels = new Properties();
+    private static boolean shutdownHookInstalled;
+    private static boolean shutDown;
+
+    private final String name;
+    private volatile int threshold;
+
+    private Log(String name) {
+        this.name = name;
+        synchronized (LOCK) {
+            this.threshold = levelFor(name).ordinal();
+        }
+    }
+
+    public static Log get(Class<?> type) {
+        return LOGGERS.computeIfAbsent(type.getSimpleName(), Log::new);
+    }
+
+    public static void configure(Properties props) {
+        synchronized (LOCK) {
+            defaultLevel = LogLevel.parse(props.getProperty("log.level"), LogLevel.INFO);
+            levels = props;
+            for (Log log : LOGGERS.values()) {
+                log.threshold = levelFor(log.name).ordinal();
+            }
+
+            String file = props.getProperty("log.file", "").trim();
+            int bufferSize = Math.max(2, Config.getInt(props, "log.bufferSize", DEFAULT_BUFFER_SIZE));
+            String settings = file + "|" + bufferSize;
+            if (shutDown || (writer != null && Objects.equals(settings, outputSettings))) {
+                return;
+            }
+            // The old writer drains its ring on close; loggers keep offering to it until the new ring is published.
+            LogRingBuffer oldRing = buffer;
+            boolean drained = writer == null || writer.close();
+            start(file.isEmpty() ? null : Paths.get(file), bufferSize);
+            outputSettings = settings;
+            if (oldRing != null && drained) {
+                LogRecord record;
+                while ((record = oldRing.poll()) != null) {
+                    if (!buffer.offer(record)) {
+                        buffer.recordDropped();
+                    }
+                }
+            }
+        }
+    }
+
+    public static void shutdown() {
+        synchronized (LOCK) {
+            shutDown = true;
+            if (writer != null) {
+                writer.close();
+                writer = null;
+                buffer = null;
+            }
+        }
+    }
+
+    private static LogLevel levelFor(String name) {
+        return LogLevel.parse(levels.getProperty("log.level." + name), defaultLevel);
+    }
+
+    private static LogRingBuffer activeBuffer() {
+        LogRingBuffer current = buffer;
+        if (current != null) {
+            return current;
+        }
+        synchronized (LOCK) {
+            if (buffer == null && !shutDown) {
+                start(null, DEFAULT_BUFFER_SIZE);
+                outputSettings = "|" + DEFAULT_BUFFER_SIZE;
+            }
+            return buffer;
+        }
+    }
+
+    private static void start(Path file, int bufferSize) {
+        LogRingBuffer ring = new LogRingBuffer(bufferSize);
+        try {
+            writer = new LogWriter(ring, file);
+        } catch (IOException e) {
+            System.err.println("Could not open log file " + file + ", logging to console: " + e.getMessage());
+            try {
+                writer = new LogWriter(ring, null);
+            } catch (IOException consoleError) {
+                throw new IllegalStateException(consoleError);
+            }
+        }
+        buffer = ring;
+        if (!shutdownHookInstalled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(Log::shutdown, "log-shutdown"));
+            shutdownHookInstalled = true;
+        }
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= threshold;
+    }
+
+    public boolean isTraceEnabled() {
+        return LogLevel.TRACE.ordinal() >= threshold;
+    }
+
+    public boolean isDebugEnabled() {
+        return LogLevel.DEBUG.ordinal() >= threshold;
+    }
+
+    public void trace(String message, Object... fields) {
+        log(LogLevel.TRACE, message, fields, null);
+    }
+
+    public void debug(String message, Object... fields) {
+        log(LogLevel.DEBUG, message, fields, null);
+    }
+
+    public void info(String message, Object... fields) {
+        log(LogLevel.INFO, message, fields, null);
+    }
+
+    public void warn(String message, Object... fields) {
+        log(LogLevel.WARN, message, fields, null);
+    }
+
+    public void warn(String message, Throwable error, Object... fields) {
+        log(LogLevel.WARN, message, fields, error);
+    }
+
+    public void error(String message, Object... fields) {
+        log(LogLevel.ERROR, message, fields, null);
+    }
+
+    public void error(String message, Throwable error, Object... fields) {
+        log(LogLevel.ERROR, message, fields, error);
+    }
+
+    private void log(LogLevel level, String message, Object[] fields, Throwable error) {
+        if (level.ordinal() < threshold) {
+            return;
+        }
+        LogRingBuffer ring = activeBuffer();
+        if (ring == null) {
+            return;
+        }
+        LogRecord record = new LogRecord(level, name, message, fields, error);
+        if (ring.offer(record)) {
+            return;
+        }
+        if (level.compareTo(LogLevel.WARN) >= 0) {
+            for (int attempt = 0; attempt < WARN_OFFER_ATTEMPTS; attempt++) {
+                LockSupport.parkNanos(WARN_OFFER_BACKOFF_NANOS);
+                if (ring.offer(record)) {
+                    return;
+                }
+            }
+        }
+        ring.recordDropped();
+    }
+}
@@ -0,0 +1,17 @@
+package onlinebankingsystem;
+
+public enum LogLevel {
+    TRACE, DEBUG, INFO, WARN, ERROR, OFF;
+
+    static LogLevel parse(String value, LogLevel defaultLevel) {
+        if (value == null || value.isBlank()) {
+            return defaultLevel;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid log level " + value + ", using " + defaultLevel);
+            return defaultLevel;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package onlinebankingsystem;
+
+final class LogRecord {
+    final long timestamp;
+    final LogLevel level;
+    final String logger;
+    final String thread;
+    final String message;
+    final Object[] fields;
+    final Throwable error;
+
+    LogRecord(LogLevel level, String logger, String message, Object[] fields, Throwable error) {
+        this.timestamp = System.currentTimeMillis();
+        this.level = level;
+        this.logger = logger;
+        this.thread = Thread.currentThread().getName();
+        this.message = message;
+        this.fields = fields;
+        this.error = error;
+    }
+}
@@ -0,0 +1,90 @@
+package onlinebankingsystem;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+final class LogRingBuffer {
+    private final LogRecord[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long head;
+    private volatile Thread waitingConsumer;
+
+    LogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new LogRecord[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(LogRecord record) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = record;
+                    sequences.set(index, position + 1);
+                    wakeConsumer();
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    LogRecord poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        LogRecord record = slots[index];
+        slots[index] = null;
+        sequences.set(index, head + slots.length);
+        head++;
+        return record;
+    }
+
+    void awaitRecords(long maxWaitNanos) {
+        waitingConsumer = Thread.currentThread();
+        if (isEmpty() && dropped.get() == 0) {
+            LockSupport.parkNanos(this, maxWaitNanos);
+        }
+        waitingConsumer = null;
+    }
+
+    private void wakeConsumer() {
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    void recordDropped() {
+        dropped.incrementAndGet();
+        wakeConsumer();
+    }
+
+    long takeDroppedCount() {
+        return dropped.getAndSet(0);
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
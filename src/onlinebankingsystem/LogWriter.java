@@ -0,0 +1,160 @@
+package onlinebankingsystem;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+final class LogWriter implements Runnable {
+    private static final long IDLE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LogRingBuffer buffer;
+    private final Writer file;
+    private final Writer out;
+    private final Writer err;
+    private final StringBuilder line = new StringBuilder(256);
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    LogWriter(LogRingBuffer buffer, Path file) throws IOException {
+        this.buffer = buffer;
+        this.file = file == null ? null : Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+        this.err = new OutputStreamWriter(System.err, StandardCharsets.UTF_8);
+        this.thread = new Thread(this, "log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            if (!drain()) {
+                buffer.awaitRecords(IDLE_WAIT_NANOS);
+            }
+        }
+        drain();
+        closeQuietly();
+    }
+
+    boolean close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !thread.isAlive();
+    }
+
+    private boolean drain() {
+        boolean wroteOut = false;
+        boolean wroteErr = false;
+        LogRecord record;
+        while ((record = buffer.poll()) != null) {
+            Writer target = targetFor(record.level);
+            write(target, format(record));
+            wroteOut |= target != err;
+            wroteErr |= target == err;
+        }
+        long dropped = buffer.takeDroppedCount();
+        if (dropped > 0) {
+            Writer target = targetFor(LogLevel.WARN);
+            write(target, format(new LogRecord(LogLevel.WARN, "Log", "Log buffer full, records dropped",
+                    new Object[] {"dropped", dropped, "capacity", buffer.capacity()}, null)));
+            wroteOut |= target != err;
+            wroteErr |= target == err;
+        }
+        if (wroteOut) flush(file != null ? file : out);
+        if (wroteErr) flush(err);
+        return wroteOut || wroteErr;
+    }
+
+    private Writer targetFor(LogLevel level) {
+        if (file != null) {
+            return file;
+        }
+        return level.compareTo(LogLevel.WARN) >= 0 ? err : out;
+    }
+
+    private String format(LogRecord record) {
+        line.setLength(0);
+        line.append(Instant.ofEpochMilli(record.timestamp)).append(' ');
+        line.append(record.level);
+        for (int i = record.level.name().length(); i < 5; i++) {
+            line.append(' ');
+        }
+        line.append(" [").append(record.thread).append("] ");
+        line.append(record.logger).append(" - ").append(record.message);
+        Object[] fields = record.fields;
+        for (int i = 0; fields != null && i + 1 < fields.length; i += 2) {
+            line.append(' ').append(fields[i]).append('=');
+            appendValue(fields[i + 1]);
+        }
+        if (record.error != null) {
+            line.append(" error=");
+            appendValue(String.valueOf(record.error.getMessage()));
+            line.append(System.lineSeparator());
+            StringWriter trace = new StringWriter();
+            record.error.printStackTrace(new PrintWriter(trace));
+            line.append(trace.toString().stripTrailing());
+        }
+        return line.append(System.lineSeparator()).toString();
+    }
+
+    private void appendValue(Object value) {
+        String text = String.valueOf(value);
+        boolean quote = text.isEmpty() || text.indexOf(' ') >= 0 || text.indexOf('=') >= 0 || text.indexOf('"') >= 0;
+        if (!quote) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void write(Writer target, String text) {
+        try {
+            target.write(text);
+        } catch (IOException e) {
+            System.err.print(text);
+        }
+    }
+
+    private void flush(Writer target) {
+        try {
+            target.flush();
+        } catch (IOException e) {
+            System.err.println("Error flushing log output: " + e.getMessage());
+        }
+    }
+
+    private void closeQuietly() {
+        flush(out);
+        flush(err);
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                System.err.println("Error closing log file: " + e.getMessage());
+            }
+        }
+    }
+}
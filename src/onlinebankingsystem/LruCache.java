@@ -0,0 +1,119 @@
+package onlinebankingsystem;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+public class LruCache<K, V> {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final BiConsumer<K, V> removalListener;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public LruCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, (key, value) -> { });
+    }
+
+    public LruCache(int maxSize, long ttlMillis, BiConsumer<K, V> removalListener) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttlMillis;
+        this.removalListener = removalListener;
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (ttlMillis > 0 && System.currentTimeMillis() - entry.loadedAt > ttlMillis) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            removalListener.accept(key, entry.value);
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized boolean putIfUnchanged(K key, V value, long expectedVersion) {
+        if (expectedVersion != version) {
+            return false;
+        }
+        entries.put(key, new Entry<>(value));
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            Map.Entry<K, Entry<V>> evicted = eldest.next();
+            eldest.remove();
+            evictions++;
+            removalListener.accept(evicted.getKey(), evicted.getValue().value);
+        }
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        version++;
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            invalidations++;
+            removalListener.accept(key, removed.value);
+        }
+    }
+
+    public synchronized void invalidateInFlightLoads() {
+        version++;
+    }
+
+    public synchronized void clear() {
+        version++;
+        for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+            removalListener.accept(entry.getKey(), entry.getValue().value);
+        }
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized int size() { return entries.size(); }
+
+    public synchronized long getHitCount() { return hits; }
+
+    public synchronized long getMissCount() { return misses; }
+
+    public synchronized long getEvictionCount() { return evictions; }
+
+    public synchronized long getExpirationCount() { return expirations; }
+
+    public synchronized long getInvalidationCount() { return invalidations; }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public synchronized String getStatistics() {
+        return String.format("size=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, expirations=%d, invalidations=%d",
+                entries.size(), maxSize, hits, misses, getHitRate() * 100, evictions, expirations, invalidations);
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long loadedAt = System.currentTimeMillis();
+
+        Entry(V value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package onlinebankingsystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+final class ObservableLists {
+    private ObservableLists() {
+    }
+
+    static <T, K> void upsert(List<T> target, List<? extends T> updates, Function<? super T, K> keyOf,
+                              BiPredicate<? super T, ? super T> changed, Comparator<? super T> order) {
+        Map<K, Integer> positions = new HashMap<>();
+        for (int i = 0; i < target.size(); i++) {
+            positions.put(keyOf.apply(target.get(i)), i);
+        }
+        List<T> added = new ArrayList<>();
+        for (T update : updates) {
+            Integer position = positions.get(keyOf.apply(update));
+            if (position == null) {
+                added.add(update);
+            } else if (changed.test(target.get(position), update)) {
+                target.set(position, update);
+            }
+        }
+        for (T row : added) {
+            int index = Collections.binarySearch(target, row, order);
+            target.add(index < 0 ? -index - 1 : index, row);
+        }
+    }
+
+    static <T> BiPredicate<T, T> differs(Function<? super T, ?> first, Function<? super T, ?> second) {
+        return (current, update) -> !Objects.equals(first.apply(current), first.apply(update))
+                || !Objects.equals(second.apply(current), second.apply(update));
+    }
+}
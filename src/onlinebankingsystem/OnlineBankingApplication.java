@@ -1,38 +1,76 @@
 package onlinebankingsystem;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 
 public class OnlineBankingApplication extends Application {
+    private static final int TRANSACTION_PAGE_SIZE = 100;
+    private static final int CUSTOMER_PAGE_SIZE = 100;
+    private static final int CUSTOMER_PREFETCH_PAGES = 1;
+    private static final int CUSTOMER_CACHED_PAGES = 10;
+    private static final int CUSTOMER_SEARCH_LIMIT = 20;
+    private static final Duration CUSTOMER_SEARCH_DELAY = Duration.millis(250);
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator.comparing(Transaction::getTransId).reversed();
 
     private Stage primaryStage;
     private TableView<Customer> customerTable;
+    private PagedCustomerList customerPages;
     private TableView<Account> accountTable;
     private TableView<Transaction> transactionTable;
     private TableView<Loan> loanTable;
 
     private Long currentCustomerId;
+    private Long transactionAccountId;
+    private Long transactionCursor;
+    private boolean transactionsExhausted;
+    private boolean transactionPageLoading;
 
     private DatabaseService dbService;
-
-    public static void main(String[] args) {
+    private AsyncDatabaseService asyncDb;
+    private ChangeFeed changeFeed;
+    private ChangeFeed.Subscription dashboardSubscription;
+    private ChangeFeed.Listener dashboardListener;
+    private final List<ChangeFeed.Changes> bufferedChanges = new ArrayList<>();
+    private int dashboardLoads;
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--headless")) {
+            BankingHttpServer.main(args);
+            return;
+        }
         launch(args);
     }
 
     @Override
     public void start(Stage primaryStage) {
         this.primaryStage = primaryStage;
-        this.dbService = new DatabaseService();
+        Properties props = DatabaseService.loadDatabaseProperties();
+        this.dbService = new DatabaseService(props);
+        this.asyncDb = new AsyncDatabaseService(dbService);
+        this.changeFeed = new ChangeFeed(dbService, props);
 
         showLoginScreen();
 
@@ -40,6 +78,20 @@ public class OnlineBankingApplication extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        if (changeFeed != null) {
+            changeFeed.close();
+        }
+        if (asyncDb != null) {
+            asyncDb.shutdown();
+        }
+        if (dbService != null) {
+            dbService.close();
+        }
+        Log.shutdown();
+    }
+
 
     private void showSignUpForm() {
         SignUpForm signUpForm = new SignUpForm(dbService);
@@ -47,6 +99,9 @@ public class OnlineBankingApplication extends Application {
     }
 
     private void showLoginScreen() {
+        unsubscribeDashboard();
+        asyncDb.cancelAll();
+
         GridPane grid = new GridPane();
         grid.setAlignment(Pos.CENTER);
         grid.setHgap(10);
@@ -60,12 +115,39 @@ public class OnlineBankingApplication extends Application {
         Button adminBtn = new Button("Admin Login");
         adminBtn.setOnAction(e -> showAdminDashboard());
 
+        TextField customerSearch = new TextField();
+        customerSearch.setPromptText("Search by name or phone");
+
         ComboBox<Customer> customerSelect = new ComboBox<>();
-        List<Customer> customers = dbService.getAllCustomers();
-        ObservableList<Customer> customerOptions = FXCollections.observableArrayList(customers);
+        ObservableList<Customer> customerOptions = FXCollections.observableArrayList();
         customerSelect.setItems(customerOptions);
         customerSelect.setPromptText("Select Customer");
 
+        PauseTransition searchDelay = new PauseTransition(CUSTOMER_SEARCH_DELAY);
+        CompletableFuture<?>[] pendingSearch = new CompletableFuture<?>[1];
+        searchDelay.setOnFinished(e -> {
+            if (pendingSearch[0] != null) {
+                pendingSearch[0].cancel(true);
+            }
+            String query = customerSearch.getText().trim();
+            if (query.isEmpty()) {
+                customerOptions.clear();
+                return;
+            }
+            CompletableFuture<List<Customer>> search = asyncDb.searchCustomers(query, CUSTOMER_SEARCH_LIMIT);
+            pendingSearch[0] = search;
+            asyncDb.onFx(search, results -> {
+                if (pendingSearch[0] != search) {
+                    return;
+                }
+                customerOptions.setAll(results);
+                if (!results.isEmpty()) {
+                    customerSelect.show();
+                }
+            });
+        });
+        customerSearch.textProperty().addListener((obs, oldText, newText) -> searchDelay.playFromStart());
+
         PasswordField passwordField = new PasswordField();
         passwordField.setPromptText("Enter password");
 
@@ -103,10 +185,21 @@ public class OnlineBankingApplication extends Application {
                 showAlert("Please select a customer");
             } else if (password.isEmpty()) {
                 showAlert("Please enter your password");
-            } else if (verifyCustomerPassword(selected, password)) {
-                showCustomerDashboard(selected);
             } else {
-                showAlert("Invalid password");
+                customerBtn.setDisable(true);
+                asyncDb.onFx(dbService.getCredentials().verifyCustomer(selected.getId(), password), valid -> {
+                    customerBtn.setDisable(false);
+                    if (valid) {
+                        showCustomerDashboard(selected);
+                    } else {
+                        showAlert("Invalid password");
+                    }
+                }, error -> {
+                    customerBtn.setDisable(false);
+                    showAlert(error instanceof RejectedExecutionException
+                            ? "Login service is busy, please try again"
+                            : "Login failed, please try again");
+                });
             }
         });
 
@@ -118,20 +211,17 @@ public class OnlineBankingApplication extends Application {
         VBox loginBox = new VBox(10);
         loginBox.getChildren().addAll(
                 new Label("Admin:"), adminBtn,
-                new Label("Customer:"), customerSelect, passwordField, customerBtn,
+                new Label("Customer:"), customerSearch, customerSelect, passwordField, customerBtn,
                 new Label("New User:"), signUpButton
         );
 
         grid.add(loginBox, 0, 1);
+        grid.add(createBusyIndicator(), 1, 0);
 
-        Scene scene = new Scene(grid, 400, 300);
+        Scene scene = new Scene(grid, 400, 340);
         primaryStage.setScene(scene);
     }
 
-    private boolean verifyCustomerPassword(Customer customer, String password) {
-        return password.equals(customer.getPassword());
-    }
-
 
     private void showCustomerDashboard(Customer customer) {
         currentCustomerId = customer.getId();
@@ -157,8 +247,8 @@ public class OnlineBankingApplication extends Application {
 
         accountTable.getColumns().addAll(accountIdCol, accountTypeCol, balanceCol, statusCol);
 
-        List<Account> accounts = dbService.getAccountsByCustomerId(customer.getId());
-        accountTable.setItems(FXCollections.observableArrayList(accounts));
+        ObservableList<Account> accounts = FXCollections.observableArrayList();
+        accountTable.setItems(accounts);
 
         GridPane transferForm = new GridPane();
         transferForm.setHgap(10);
@@ -166,7 +256,7 @@ public class OnlineBankingApplication extends Application {
         transferForm.setPadding(new Insets(10));
 
         ComboBox<Account> fromAccountCombo = new ComboBox<>();
-        fromAccountCombo.setItems(FXCollections.observableArrayList(accounts));
+        fromAccountCombo.setItems(accounts);
         fromAccountCombo.setPromptText("From Account");
 
         TextField toAccountField = new TextField();
@@ -183,14 +273,19 @@ public class OnlineBankingApplication extends Application {
                 Long amount = Long.parseLong(amountField.getText());
 
                 if (fromAccount != null && toAccountId != null && amount > 0) {
-                    boolean success = dbService.transferFunds(fromAccount.getAccountId(), toAccountId, amount);
-                    if (success) {
-                        showAlert("Transfer successful!");
-                        List<Account> updatedAccounts = dbService.getAccountsByCustomerId(customer.getId());
-                        accountTable.setItems(FXCollections.observableArrayList(updatedAccounts));
-                    } else {
+                    transferBtn.setDisable(true);
+                    asyncDb.onFx(asyncDb.transferFunds(fromAccount.getAccountId(), toAccountId, amount), success -> {
+                        transferBtn.setDisable(false);
+                        if (success) {
+                            showAlert("Transfer successful!");
+                            asyncDb.onFx(asyncDb.getAccountsByCustomerId(customer.getId()), accounts::setAll);
+                        } else {
+                            showAlert("Transfer failed!");
+                        }
+                    }, error -> {
+                        transferBtn.setDisable(false);
                         showAlert("Transfer failed!");
-                    }
+                    });
                 } else {
                     showAlert("Please fill all fields correctly");
                 }
@@ -223,7 +318,7 @@ public class OnlineBankingApplication extends Application {
         transactionsTab.setClosable(false);
 
         ComboBox<Account> accountCombo = new ComboBox<>();
-        accountCombo.setItems(FXCollections.observableArrayList(accounts));
+        accountCombo.setItems(accounts);
         accountCombo.setPromptText("Select Account");
 
         transactionTable = new TableView<>();
@@ -244,13 +339,14 @@ public class OnlineBankingApplication extends Application {
         amountCol.setCellValueFactory(new PropertyValueFactory<>("amount"));
 
         transactionTable.getColumns().addAll(transIdCol, typeCol, fromCol, toCol, amountCol);
+        transactionAccountId = null;
+        whenScrolledToBottom(transactionTable, this::loadNextTransactionPage);
 
         Button viewTransactionsBtn = new Button("View Transactions");
         viewTransactionsBtn.setOnAction(e -> {
             Account selected = accountCombo.getValue();
             if (selected != null) {
-                List<Transaction> transactions = dbService.getTransactionsByAccountId(selected.getAccountId());
-                transactionTable.setItems(FXCollections.observableArrayList(transactions));
+                loadTransactionHistory(selected.getAccountId());
             } else {
                 showAlert("Please select an account");
             }
@@ -282,8 +378,8 @@ public class OnlineBankingApplication extends Application {
 
         loanTable.getColumns().addAll(loanIdCol, loanAmountCol, branchCol);
 
-        List<Loan> loans = dbService.getLoansByCustomerId(customer.getId());
-        loanTable.setItems(FXCollections.observableArrayList(loans));
+        ObservableList<Loan> loans = FXCollections.observableArrayList();
+        loanTable.setItems(loans);
 
         GridPane loanForm = new GridPane();
         loanForm.setHgap(10);
@@ -303,14 +399,19 @@ public class OnlineBankingApplication extends Application {
                 Integer branchId = Integer.parseInt(branchIdField.getText());
 
                 if (amount > 0) {
-                    boolean success = dbService.takeLoan(customer.getId(), amount, branchId);
-                    if (success) {
-                        showAlert("Loan application successful!");
-                        List<Loan> updatedLoans = dbService.getLoansByCustomerId(customer.getId());
-                        loanTable.setItems(FXCollections.observableArrayList(updatedLoans));
-                    } else {
+                    applyBtn.setDisable(true);
+                    asyncDb.onFx(asyncDb.takeLoan(customer.getId(), amount, branchId), success -> {
+                        applyBtn.setDisable(false);
+                        if (success) {
+                            showAlert("Loan application successful!");
+                            asyncDb.onFx(asyncDb.getLoansByCustomerId(customer.getId()), loans::setAll);
+                        } else {
+                            showAlert("Loan application failed!");
+                        }
+                    }, error -> {
+                        applyBtn.setDisable(false);
                         showAlert("Loan application failed!");
-                    }
+                    });
                 } else {
                     showAlert("Please enter a valid amount");
                 }
@@ -339,11 +440,58 @@ public class OnlineBankingApplication extends Application {
 
         tabPane.getTabs().addAll(accountsTab, transactionsTab, loansTab);
 
+        Long customerId = customer.getId();
+        subscribeDashboard(changes -> {
+            Set<Long> touched = changes.getTouchedAccountIds();
+            boolean accountsChanged = false;
+            for (Account account : accounts) {
+                if (touched.contains(account.getAccountId())) {
+                    accountsChanged = true;
+                    break;
+                }
+            }
+            if (accountsChanged) {
+                asyncDb.onFx(asyncDb.getAccountsByCustomerId(customerId), fresh -> ObservableLists.upsert(accounts, fresh,
+                        Account::getAccountId, ObservableLists.differs(Account::getBalance, Account::getStatus),
+                        Comparator.comparing(Account::getAccountId)));
+            }
+            if (transactionAccountId != null) {
+                List<Transaction> added = new ArrayList<>();
+                for (Transaction transaction : changes.getTransactions()) {
+                    if (transactionAccountId.equals(transaction.getFromID()) || transactionAccountId.equals(transaction.getToID())) {
+                        added.add(transaction);
+                    }
+                }
+                ObservableLists.upsert(transactionTable.getItems(), added, Transaction::getTransId, (a, b) -> false, NEWEST_FIRST);
+            }
+            if (changes.isLoansModified()) {
+                asyncDb.onFx(asyncDb.getLoansByCustomerId(customerId), loans::setAll);
+            } else {
+                List<Loan> newLoans = new ArrayList<>();
+                for (LoanWithCustomerInfo loan : changes.getLoans()) {
+                    if (customerId.equals(loan.getCustomerId())) {
+                        newLoans.add(new Loan(loan.getLoanId(), loan.getCustomerId(), loan.getAmount(), loan.getBranchId()));
+                    }
+                }
+                ObservableLists.upsert(loans, newLoans, Loan::getLoanId, (a, b) -> false, Comparator.comparing(Loan::getLoanId));
+            }
+            if (changes.isCustomersModified()) {
+                asyncDb.onFx(asyncDb.getCustomerById(customerId), current -> {
+                    if (current == null) {
+                        showAlert("This customer no longer exists.");
+                        showLoginScreen();
+                    }
+                });
+            }
+        });
+        loadDashboard(asyncDb.getAccountsByCustomerId(customerId), accounts::setAll);
+        loadDashboard(asyncDb.getLoansByCustomerId(customerId), loans::setAll);
+
         Button logoutBtn = new Button("Logout");
         logoutBtn.setOnAction(e -> showLoginScreen());
 
         BorderPane borderPane = new BorderPane();
-        borderPane.setTop(new HBox(10, new Label("Welcome, " + customer.getFullName()), logoutBtn));
+        borderPane.setTop(new HBox(10, new Label("Welcome, " + customer.getFullName()), logoutBtn, createBusyIndicator()));
         borderPane.setCenter(tabPane);
 
         Scene scene = new Scene(borderPane, 800, 600);
@@ -351,6 +499,53 @@ public class OnlineBankingApplication extends Application {
         primaryStage.setTitle("Customer Dashboard - " + customer.getFullName());
     }
 
+    private void loadTransactionHistory(Long accountId) {
+        transactionAccountId = accountId;
+        transactionCursor = null;
+        transactionsExhausted = false;
+        transactionPageLoading = false;
+        transactionTable.getItems().clear();
+        loadNextTransactionPage();
+    }
+
+    private void loadNextTransactionPage() {
+        if (transactionAccountId == null || transactionsExhausted || transactionPageLoading) {
+            return;
+        }
+        Long accountId = transactionAccountId;
+        transactionPageLoading = true;
+        asyncDb.onFx(asyncDb.getTransactionsPage(accountId, transactionCursor, TRANSACTION_PAGE_SIZE), page -> {
+            if (!accountId.equals(transactionAccountId)) {
+                return;
+            }
+            transactionPageLoading = false;
+            ObservableLists.upsert(transactionTable.getItems(), page, Transaction::getTransId, (a, b) -> false, NEWEST_FIRST);
+            if (page.size() < TRANSACTION_PAGE_SIZE) {
+                transactionsExhausted = true;
+            } else {
+                transactionCursor = page.get(page.size() - 1).getTransId();
+            }
+        }, error -> {
+            transactionPageLoading = false;
+            showAlert("Could not load transactions");
+        });
+    }
+
+    private void whenScrolledToBottom(TableView<?> table, Runnable action) {
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            for (Node node : table.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                    ScrollBar bar = (ScrollBar) node;
+                    bar.valueProperty().addListener((o, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= bar.getMax()) {
+                            action.run();
+                        }
+                    });
+                }
+            }
+        });
+    }
+
     private void showAdminDashboard() {
         BorderPane borderPane = new BorderPane();
         TabPane tabPane = new TabPane();
@@ -362,29 +557,34 @@ public class OnlineBankingApplication extends Application {
 
         TableColumn<Customer, Long> idCol = new TableColumn<>("ID");
         idCol.setCellValueFactory(new PropertyValueFactory<>("id"));
+        idCol.setUserData(CustomerSortColumn.ID);
 
         TableColumn<Customer, String> firstNameCol = new TableColumn<>("First Name");
         firstNameCol.setCellValueFactory(new PropertyValueFactory<>("firstName"));
+        firstNameCol.setUserData(CustomerSortColumn.FIRST_NAME);
 
         TableColumn<Customer, String> lastNameCol = new TableColumn<>("Last Name");
         lastNameCol.setCellValueFactory(new PropertyValueFactory<>("lastName"));
+        lastNameCol.setUserData(CustomerSortColumn.LAST_NAME);
 
         TableColumn<Customer, Integer> phoneCol = new TableColumn<>("Phone");
         phoneCol.setCellValueFactory(new PropertyValueFactory<>("phone"));
+        phoneCol.setUserData(CustomerSortColumn.PHONE);
 
-        TableColumn<Customer, String> passwordCol = new TableColumn<>("Password");
-        passwordCol.setCellValueFactory(new PropertyValueFactory<>("password"));
-
+        customerTable.getColumns().addAll(idCol, firstNameCol, lastNameCol, phoneCol);
 
-        customerTable.getColumns().addAll(idCol, firstNameCol, lastNameCol, phoneCol, passwordCol);
-
-        List<Customer> customers = dbService.getAllCustomers();
-        customerTable.setItems(FXCollections.observableArrayList(customers));
-
-        Button refreshBtn = new Button("Refresh Customers");
-        refreshBtn.setOnAction(e -> {
-            List<Customer> refreshedCustomers = dbService.getAllCustomers();
-            customerTable.setItems(FXCollections.observableArrayList(refreshedCustomers));
+        customerPages = new PagedCustomerList(asyncDb, CUSTOMER_PAGE_SIZE, CUSTOMER_PREFETCH_PAGES, CUSTOMER_CACHED_PAGES);
+        customerTable.setItems(customerPages);
+        customerTable.setSortPolicy(table -> {
+            List<TableColumn<Customer, ?>> sortOrder = table.getSortOrder();
+            if (sortOrder.isEmpty()) {
+                customerPages.sort(CustomerSortColumn.ID, true);
+            } else {
+                TableColumn<Customer, ?> column = sortOrder.get(0);
+                customerPages.sort((CustomerSortColumn) column.getUserData(),
+                        column.getSortType() == TableColumn.SortType.ASCENDING);
+            }
+            return true;
         });
 
         Button deleteCustomerBtn = new Button("Delete Selected Customer");
@@ -397,7 +597,7 @@ public class OnlineBankingApplication extends Application {
             }
         });
 
-        HBox customerButtons = new HBox(10, refreshBtn, deleteCustomerBtn);
+        HBox customerButtons = new HBox(10, deleteCustomerBtn);
 
         VBox customersBox = new VBox(10);
         customersBox.setPadding(new Insets(10));
@@ -428,34 +628,43 @@ public class OnlineBankingApplication extends Application {
 
         loanTable.getColumns().addAll(loanIdCol, customerNameCol, amountCol, branchIdCol);
 
-        List<LoanWithCustomerInfo> loansWithInfo = getAllLoansWithCustomerInfo();
-        loanTable.setItems(FXCollections.observableArrayList(loansWithInfo));
-
-        Button refreshLoansBtn = new Button("Refresh Loans");
-        refreshLoansBtn.setOnAction(e -> {
-            List<LoanWithCustomerInfo> refreshedLoans = getAllLoansWithCustomerInfo();
-            loanTable.setItems(FXCollections.observableArrayList(refreshedLoans));
-        });
+        ObservableList<LoanWithCustomerInfo> loansWithInfo = FXCollections.observableArrayList();
+        loanTable.setItems(loansWithInfo);
 
         VBox loansBox = new VBox(10);
         loansBox.setPadding(new Insets(10));
         loansBox.getChildren().addAll(
                 new Label("All Loans"),
-                loanTable,
-                refreshLoansBtn
+                loanTable
         );
 
         loansTab.setContent(loansBox);
 
         tabPane.getTabs().addAll(customersTab, loansTab);
 
+        PagedCustomerList pages = customerPages;
+        subscribeDashboard(changes -> {
+            if (changes.isLoansModified()) {
+                asyncDb.onFx(asyncDb.getAllLoansWithCustomerInfo(), loansWithInfo::setAll);
+            } else {
+                ObservableLists.upsert(loansWithInfo, changes.getLoans(), LoanWithCustomerInfo::getLoanId,
+                        ObservableLists.differs(LoanWithCustomerInfo::getAmount, LoanWithCustomerInfo::getBranchId),
+                        Comparator.comparing(LoanWithCustomerInfo::getLoanId));
+            }
+            if (!changes.getCustomers().isEmpty() || changes.isCustomersModified()) {
+                pages.refresh();
+            }
+        });
+        customerPages.refresh();
+        loadDashboard(asyncDb.getAllLoansWithCustomerInfo(), loansWithInfo::setAll);
+
         Button logoutBtn = new Button("Logout");
         logoutBtn.setOnAction(e -> showLoginScreen());
 
         HBox topBox = new HBox(10);
         topBox.setPadding(new Insets(10));
         topBox.setAlignment(Pos.CENTER_LEFT);
-        topBox.getChildren().addAll(new Label("Admin Dashboard"), logoutBtn);
+        topBox.getChildren().addAll(new Label("Admin Dashboard"), logoutBtn, createBusyIndicator());
 
         borderPane.setTop(topBox);
         borderPane.setCenter(tabPane);
@@ -465,62 +674,6 @@ public class OnlineBankingApplication extends Application {
         primaryStage.setTitle("Admin Dashboard");
     }
 
-    private static class LoanWithCustomerInfo {
-        private Long loanId;
-        private Long customerId;
-        private String customerName;
-        private Long amount;
-        private Integer branchId;
-
-        public LoanWithCustomerInfo(Long loanId, Long customerId, String customerName, Long amount, Integer branchId) {
-            this.loanId = loanId;
-            this.customerId = customerId;
-            this.customerName = customerName;
-            this.amount = amount;
-            this.branchId = branchId;
-        }
-
-        public Long getLoanId() { return loanId; }
-        public Long getCustomerId() { return customerId; }
-        public String getCustomerName() { return customerName; }
-        public Long getAmount() { return amount; }
-        public Integer getBranchId() { return branchId; }
-    }
-
-    private List<LoanWithCustomerInfo> getAllLoansWithCustomerInfo() {
-        List<LoanWithCustomerInfo> result = FXCollections.observableArrayList();
-
-        System.out.println("Fetching all loans for manager UI...");
-        List<Loan> loansList = dbService.getAllLoans();
-        System.out.println("Retrieved " + loansList.size() + " loans to process");
-
-        for (Loan loan : loansList) {
-            Customer customer = dbService.getCustomerById(loan.getCustId());
-            if (customer != null) {
-                String customerName = customer.getFirstName() + " " + customer.getLastName();
-                LoanWithCustomerInfo loanInfo = new LoanWithCustomerInfo(
-                        loan.getLoanId(),
-                        loan.getCustId(),
-                        customerName,
-                        loan.getAmount(),
-                        loan.getBranchId()
-                );
-                result.add(loanInfo);
-                System.out.println("Added loan with customer info: " + loanInfo.getLoanId() +
-                        ", Customer: " + customerName);
-            } else {
-                System.out.println("WARNING: Could not find customer with ID " + loan.getCustId() +
-                        " for loan " + loan.getLoanId());
-            }
-        }
-
-        System.out.println("Returning " + result.size() + " loans with customer info");
-        return result;
-    }
-
-
-
-
     private void deleteCustomer(Customer customer) {
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
         confirmAlert.setTitle("Confirm Delete");
@@ -530,17 +683,74 @@ public class OnlineBankingApplication extends Application {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                boolean success = dbService.deleteCustomer(customer.getId());
-                if (success) {
-                    customerTable.getItems().remove(customer);
-                    showAlert("Customer deleted successfully");
-                } else {
-                    showAlert("Failed to delete customer.");
-                }
+                asyncDb.onFx(asyncDb.deleteCustomer(customer.getId()), success -> {
+                    if (success) {
+                        customerPages.refresh();
+                        showAlert("Customer deleted successfully");
+                    } else {
+                        showAlert("Failed to delete customer.");
+                    }
+                });
             }
         });
     }
 
+    private void subscribeDashboard(ChangeFeed.Listener listener) {
+        unsubscribeDashboard();
+        bufferedChanges.clear();
+        dashboardLoads = 0;
+        dashboardListener = listener;
+        ChangeFeed.Subscription[] subscription = new ChangeFeed.Subscription[1];
+        subscription[0] = changeFeed.subscribe(changes -> Platform.runLater(() -> {
+            if (dashboardSubscription != subscription[0]) {
+                return;
+            }
+            if (dashboardLoads > 0) {
+                bufferedChanges.add(changes);
+            } else {
+                listener.onChanges(changes);
+            }
+        }));
+        dashboardSubscription = subscription[0];
+    }
+
+    private <T> void loadDashboard(CompletableFuture<T> load, Consumer<? super T> apply) {
+        ChangeFeed.Subscription subscription = dashboardSubscription;
+        dashboardLoads++;
+        asyncDb.onFx(load, value -> {
+            apply.accept(value);
+            finishDashboardLoad(subscription);
+        }, error -> {
+            finishDashboardLoad(subscription);
+            showAlert("Could not load dashboard data");
+        });
+    }
+
+    private void finishDashboardLoad(ChangeFeed.Subscription subscription) {
+        if (subscription != dashboardSubscription || --dashboardLoads > 0) {
+            return;
+        }
+        List<ChangeFeed.Changes> replay = new ArrayList<>(bufferedChanges);
+        bufferedChanges.clear();
+        for (ChangeFeed.Changes changes : replay) {
+            dashboardListener.onChanges(changes);
+        }
+    }
+
+    private void unsubscribeDashboard() {
+        if (dashboardSubscription != null) {
+            dashboardSubscription.close();
+            dashboardSubscription = null;
+        }
+    }
+
+    private ProgressIndicator createBusyIndicator() {
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setPrefSize(20, 20);
+        indicator.visibleProperty().bind(asyncDb.inFlightProperty().greaterThan(0));
+        return indicator;
+    }
+
     private void showAlert(String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Information");
@@ -0,0 +1,67 @@
+package onlinebankingsystem;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationMetrics implements OperationMetricsMXBean {
+    private final String operation;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> errorsBySqlState = new ConcurrentHashMap<>();
+
+    public OperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    void recordLatency(long nanos) {
+        latency.record(nanos);
+    }
+
+    void recordError(SQLException e) {
+        errors.increment();
+        String sqlState = e.getSQLState() == null ? "unknown" : e.getSQLState();
+        errorsBySqlState.computeIfAbsent(sqlState, state -> new LongAdder()).increment();
+    }
+
+    public LatencyHistogram getLatency() { return latency; }
+
+    @Override
+    public String getOperation() { return operation; }
+
+    @Override
+    public long getCallCount() { return latency.getCount(); }
+
+    @Override
+    public long getErrorCount() { return errors.sum(); }
+
+    @Override
+    public Map<String, Long> getErrorsBySqlState() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        errorsBySqlState.forEach((state, count) -> snapshot.put(state, count.sum()));
+        return snapshot;
+    }
+
+    @Override
+    public double getMeanMicros() { return latency.getMeanNanos() / 1_000.0; }
+
+    @Override
+    public double getP50Micros() { return latency.getPercentileNanos(50) / 1_000.0; }
+
+    @Override
+    public double getP99Micros() { return latency.getPercentileNanos(99) / 1_000.0; }
+
+    @Override
+    public double getP999Micros() { return latency.getPercentileNanos(99.9) / 1_000.0; }
+
+    @Override
+    public double getMaxMicros() { return latency.getMaxNanos() / 1_000.0; }
+
+    public String summary() {
+        return String.format("%s calls=%d errors=%d %s mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+                operation, getCallCount(), getErrorCount(), getErrorsBySqlState(),
+                getMeanMicros(), getP50Micros(), getP99Micros(), getP999Micros(), getMaxMicros());
+    }
+}
@@ -0,0 +1,23 @@
+package onlinebankingsystem;
+
+import java.util.Map;
+
+public interface OperationMetricsMXBean {
+    String getOperation();
+
+    long getCallCount();
+
+    long getErrorCount();
+
+    Map<String, Long> getErrorsBySqlState();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+}
@@ -0,0 +1,136 @@
+package onlinebankingsystem;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class PagedCustomerList extends ObservableListBase<Customer> {
+    private static final Log LOG = Log.get(PagedCustomerList.class);
+
+    private final AsyncDatabaseService asyncDb;
+    private final int pageSize;
+    private final int prefetchPages;
+    private final int maxCachedPages;
+
+    private final LinkedHashMap<Integer, List<Customer>> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Integer> loading = new HashSet<>();
+    // Last key of every page seen since the last refresh; kept after the rows are evicted so a page can seek from its neighbour.
+    private final TreeMap<Integer, CustomerPage.Key> boundaries = new TreeMap<>();
+    private CustomerSortColumn sortColumn = CustomerSortColumn.ID;
+    private boolean ascending = true;
+    private int size;
+    private long version;
+
+    public PagedCustomerList(AsyncDatabaseService asyncDb, int pageSize, int prefetchPages, int maxCachedPages) {
+        this.asyncDb = asyncDb;
+        this.pageSize = Math.max(1, pageSize);
+        this.prefetchPages = Math.max(0, prefetchPages);
+        this.maxCachedPages = Math.max(1 + 2 * this.prefetchPages, maxCachedPages);
+    }
+
+    @Override
+    public Customer get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int page = index / pageSize;
+        for (int p = Math.max(0, page - prefetchPages); p <= page + prefetchPages; p++) {
+            requestPage(p);
+        }
+        List<Customer> rows = pages.get(page);
+        int offset = index % pageSize;
+        return rows != null && offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public CustomerSortColumn getSortColumn() { return sortColumn; }
+
+    public boolean isAscending() { return ascending; }
+
+    public int getCachedPageCount() { return pages.size(); }
+
+    public void sort(CustomerSortColumn column, boolean ascending) {
+        if (column == sortColumn && ascending == this.ascending) {
+            return;
+        }
+        this.sortColumn = column;
+        this.ascending = ascending;
+        refresh();
+    }
+
+    public void refresh() {
+        long requestVersion = ++version;
+        pages.clear();
+        loading.clear();
+        boundaries.clear();
+        asyncDb.onFx(asyncDb.countCustomers(), count -> {
+            if (requestVersion != version) {
+                return;
+            }
+            int oldSize = size;
+            size = (int) Math.min(Integer.MAX_VALUE, count);
+            beginChange();
+            if (oldSize > 0) {
+                nextRemove(0, Collections.nCopies(oldSize, null));
+            }
+            if (size > 0) {
+                nextAdd(0, size);
+            }
+            endChange();
+        });
+    }
+
+    private void requestPage(int page) {
+        if (page * (long) pageSize >= size || pages.containsKey(page) || !loading.add(page)) {
+            return;
+        }
+        long requestVersion = version;
+        Map.Entry<Integer, CustomerPage.Key> nearest = boundaries.floorEntry(page - 1);
+        CustomerPage.Key after = nearest == null ? null : nearest.getValue();
+        int skip = (page - (nearest == null ? 0 : nearest.getKey() + 1)) * pageSize;
+        asyncDb.onFx(asyncDb.getCustomersPage(sortColumn, ascending, after, skip, pageSize), result -> {
+            if (requestVersion != version) {
+                return;
+            }
+            List<Customer> rows = result.getCustomers();
+            loading.remove(page);
+            pages.put(page, rows);
+            if (result.getLastKey() != null) {
+                boundaries.put(page, result.getLastKey());
+            }
+            evictPages();
+
+            int from = page * pageSize;
+            int to = Math.min(size, from + rows.size());
+            if (from < to) {
+                beginChange();
+                nextReplace(from, to, Collections.nCopies(to - from, null));
+                endChange();
+            }
+        }, error -> {
+            if (requestVersion == version) {
+                loading.remove(page);
+            }
+            LOG.error("Error loading customer page", "page", page, "error", error.getMessage());
+        });
+    }
+
+    private void evictPages() {
+        Iterator<Integer> eldest = pages.keySet().iterator();
+        while (pages.size() > maxCachedPages && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package onlinebankingsystem;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ReconciliationJob {
+    private static final Log LOG = Log.get(ReconciliationJob.class);
+    private static final String CHECKPOINT_HEADER = "rangeSize=";
+
+    private final DatabaseService db;
+    private final int parallelism;
+    private final long rangeSize;
+    private final Path checkpointFile;
+    private final Path reportFile;
+    private final long progressIntervalMs;
+
+    private final AtomicInteger completedRanges = new AtomicInteger();
+    private final AtomicLong accountsChecked = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+    private volatile int totalRanges;
+    private long lastProgressAt;
+
+    public ReconciliationJob(DatabaseService db, Properties props) {
+        this.db = db;
+        int requested = Config.getInt(props, "reconcile.parallelism", 4);
+        this.parallelism = Math.max(1, Math.min(requested, db.getConnectionPool().getMaxSize()));
+        this.rangeSize = Math.max(1, Config.getLong(props, "reconcile.rangeSize", 10_000));
+        this.checkpointFile = Paths.get(props.getProperty("reconcile.checkpointFile", "reconcile.checkpoint"));
+        this.reportFile = Paths.get(props.getProperty("reconcile.reportFile", "reconcile-report.csv"));
+        this.progressIntervalMs = Config.getLong(props, "reconcile.progressIntervalMs", 5_000);
+    }
+
+    public ReconciliationSummary run() throws SQLException, IOException {
+        long started = System.currentTimeMillis();
+        LedgerEngine ledger = db.getLedger();
+        if (ledger != null && !ledger.awaitPersisted(TimeUnit.SECONDS.toMillis(30))) {
+            LOG.warn("Ledger postings are still pending, in-flight transfers may show up as mismatches");
+        }
+
+        long[] bounds = accountIdBounds();
+        if (bounds == null) {
+            LOG.info("No accounts to reconcile");
+            Files.deleteIfExists(checkpointFile);
+            return new ReconciliationSummary(0, 0, 0, 0, 0, true);
+        }
+
+        Set<Long> done = readCheckpoint();
+        List<Long> ranges = new ArrayList<>();
+        int skipped = 0;
+        for (long start = bounds[0]; start <= bounds[1]; start += rangeSize) {
+            if (done.contains(start)) {
+                skipped++;
+            } else {
+                ranges.add(start);
+            }
+        }
+        totalRanges = ranges.size() + skipped;
+        completedRanges.set(skipped);
+        LOG.info("Reconciliation started", "accounts", bounds[0] + ".." + bounds[1], "ranges", totalRanges,
+                "resumedPast", skipped, "parallelism", parallelism);
+
+        try (BufferedWriter checkpoint = openCheckpoint(done.isEmpty());
+             BufferedWriter report = openReport(done.isEmpty())) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new RangeTask(ranges, 0, ranges.size(), checkpoint, report));
+            } catch (RuntimeException e) {
+                for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                    if (cause instanceof SQLException) throw (SQLException) cause;
+                    if (cause instanceof IOException) throw (IOException) cause;
+                }
+                throw e;
+            } finally {
+                pool.shutdown();
+            }
+        }
+        Files.deleteIfExists(checkpointFile);
+
+        ReconciliationSummary summary = new ReconciliationSummary(totalRanges, skipped, accountsChecked.get(),
+                mismatches.get(), System.currentTimeMillis() - started, true);
+        LOG.info("Reconciliation finished", "summary", summary, "report", reportFile.toAbsolutePath());
+        return summary;
+    }
+
+    public double getProgress() {
+        int total = totalRanges;
+        return total == 0 ? 0.0 : (double) completedRanges.get() / total;
+    }
+
+    private long[] accountIdBounds() throws SQLException {
+        try (Connection conn = db.getReadConnection(false);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SqlStatements.SELECT_ACCOUNT_ID_BOUNDS)) {
+            if (!rs.next()) {
+                return null;
+            }
+            long min = rs.getLong(1);
+            if (rs.wasNull()) {
+                return null;
+            }
+            return new long[] {min, rs.getLong(2)};
+        }
+    }
+
+    private Set<Long> readCheckpoint() throws IOException {
+        Set<Long> done = new HashSet<>();
+        if (!Files.exists(checkpointFile)) {
+            return done;
+        }
+        List<String> lines = Files.readAllLines(checkpointFile, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !lines.get(0).equals(CHECKPOINT_HEADER + rangeSize)) {
+            LOG.warn("Checkpoint was written with a different range size, starting over", "file", checkpointFile);
+            return done;
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            if (!line.isBlank()) {
+                done.add(Long.parseLong(line.trim()));
+            }
+        }
+        return done;
+    }
+
+    private BufferedWriter openCheckpoint(boolean fresh) throws IOException {
+        if (fresh) {
+            BufferedWriter writer = Files.newBufferedWriter(checkpointFile, StandardCharsets.UTF_8);
+            writer.write(CHECKPOINT_HEADER + rangeSize);
+            writer.newLine();
+            writer.flush();
+            return writer;
+        }
+        return Files.newBufferedWriter(checkpointFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private BufferedWriter openReport(boolean fresh) throws IOException {
+        if (fresh || !Files.exists(reportFile)) {
+            BufferedWriter writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8);
+            writer.write("account_id,balance,expected_balance,difference");
+            writer.newLine();
+            return writer;
+        }
+        return Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private void reconcileRange(long start, BufferedWriter checkpoint, BufferedWriter report) throws SQLException, IOException {
+        long end = start + rangeSize;
+        TreeMap<Long, Long> balances = new TreeMap<>();
+        Map<Long, Long> net = new HashMap<>();
+
+        try (Connection conn = db.getReadConnection(false)) {
+            int isolation = conn.getTransactionIsolation();
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                streamRange(conn, SqlStatements.SELECT_ACCOUNT_BALANCE_RANGE, start, end, balances, 1);
+                streamRange(conn, SqlStatements.SUM_CREDITS_RANGE, start, end, net, 1);
+                streamRange(conn, SqlStatements.SUM_DEBITS_RANGE, start, end, net, -1);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                conn.setReadOnly(false);
+                conn.setTransactionIsolation(isolation);
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<Long, Long> account : balances.entrySet()) {
+            long expected = net.getOrDefault(account.getKey(), 0L);
+            if (expected != account.getValue()) {
+                lines.add(account.getKey() + "," + account.getValue() + "," + expected + "," + (account.getValue() - expected));
+            }
+        }
+
+        synchronized (this) {
+            for (String line : lines) {
+                report.write(line);
+                report.newLine();
+            }
+            report.flush();
+            checkpoint.write(Long.toString(start));
+            checkpoint.newLine();
+            checkpoint.flush();
+        }
+        accountsChecked.addAndGet(balances.size());
+        mismatches.addAndGet(lines.size());
+        completedRanges.incrementAndGet();
+        reportProgress();
+    }
+
+    private void streamRange(Connection conn, String sql, long start, long end, Map<Long, Long> into, int sign) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setLong(1, start);
+            stmt.setLong(2, end);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    into.merge(rs.getLong(1), sign * rs.getLong(2), Long::sum);
+                }
+            }
+        }
+    }
+
+    private synchronized void reportProgress() {
+        long now = System.currentTimeMillis();
+        if (now - lastProgressAt < progressIntervalMs && completedRanges.get() < totalRanges) {
+            return;
+        }
+        lastProgressAt = now;
+        LOG.info("Reconciliation progress", "ranges", completedRanges.get() + "/" + totalRanges,
+                "percent", String.format("%.1f", getProgress() * 100), "accounts", accountsChecked.get(),
+                "mismatches", mismatches.get());
+    }
+
+    private class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Long> ranges;
+        private final int from;
+        private final int to;
+        private final BufferedWriter checkpoint;
+        private final BufferedWriter report;
+
+        RangeTask(List<Long> ranges, int from, int to, BufferedWriter checkpoint, BufferedWriter report) {
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+            this.checkpoint = checkpoint;
+            this.report = report;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(ranges, from, middle, checkpoint, report),
+                        new RangeTask(ranges, middle, to, checkpoint, report));
+                return;
+            }
+            if (to == from) {
+                return;
+            }
+            try {
+                reconcileRange(ranges.get(from), checkpoint, report);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (SQLException e) {
+                throw new RuntimeException("Reconciliation of range starting at " + ranges.get(from) + " failed", e);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Properties props = DatabaseService.loadDatabaseProperties();
+        DatabaseService db = new DatabaseService(props);
+        try {
+            ReconciliationSummary summary = new ReconciliationJob(db, props).run();
+            System.out.println(summary);
+        } finally {
+            db.close();
+            Log.shutdown();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package onlinebankingsystem;
+
+public class ReconciliationSummary {
+    private final int totalRanges;
+    private final int skippedRanges;
+    private final long accountsChecked;
+    private final long mismatches;
+    private final long elapsedMillis;
+    private final boolean complete;
+
+    public ReconciliationSummary(int totalRanges, int skippedRanges, long accountsChecked, long mismatches,
+                                 long elapsedMillis, boolean complete) {
+        this.totalRanges = totalRanges;
+        this.skippedRanges = skippedRanges;
+        this.accountsChecked = accountsChecked;
+        this.mismatches = mismatches;
+        this.elapsedMillis = elapsedMillis;
+        this.complete = complete;
+    }
+
+    public int getTotalRanges() { return totalRanges; }
+    public int getSkippedRanges() { return skippedRanges; }
+    public long getAccountsChecked() { return accountsChecked; }
+    public long getMismatches() { return mismatches; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public boolean isComplete() { return complete; }
+
+    @Override
+    public String toString() {
+        return String.format("ranges=%d (resumed past %d), accounts=%d, mismatches=%d, elapsed=%d ms, complete=%s",
+                totalRanges, skippedRanges, accountsChecked, mismatches, elapsedMillis, complete);
+    }
+}
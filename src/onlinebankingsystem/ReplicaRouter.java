@@ -0,0 +1,297 @@
+package onlinebankingsystem;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ReplicaRouter implements AutoCloseable {
+    private static final Log LOG = Log.get(ReplicaRouter.class);
+    private static final String[] STATUS_QUERIES = {"SHOW REPLICA STATUS", "SHOW SLAVE STATUS"};
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final ConnectionPool primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagSeconds;
+    private final long stickyNanos;
+    private final Map<Long, Long> pinnedCustomers = new ConcurrentHashMap<>();
+    private final Map<Long, Long> pinnedAccounts = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong busy = new AtomicLong();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaRouter(ConnectionPool primary, String user, String password, Properties props) {
+        this.primary = primary;
+        this.maxLagSeconds = Math.max(0, Config.getLong(props, "db.replica.maxLagSeconds", 5));
+        long intervalMs = Math.max(100, Config.getLong(props, "db.replica.healthCheckIntervalMs", 1_000));
+        long stickyMs = Config.getLong(props, "db.replica.stickyMs", maxLagSeconds * 1_000 + 2 * intervalMs);
+        this.stickyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, stickyMs));
+
+        String replicaUser = props.getProperty("db.replica.USER", user);
+        String replicaPassword = props.getProperty("db.replica.PASSWORD", password);
+        for (String url : parseUrls(props)) {
+            replicas.add(new Replica(url, replicaUser, replicaPassword,
+                    new ConnectionPool(url, replicaUser, replicaPassword, props)));
+        }
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-replica-health");
+            t.setDaemon(true);
+            return t;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, intervalMs, TimeUnit.MILLISECONDS);
+        LOG.info("Replica routing enabled", "replicas", replicas.size(), "maxLagSeconds", maxLagSeconds,
+                "stickyMs", TimeUnit.NANOSECONDS.toMillis(stickyNanos));
+    }
+
+    static List<String> parseUrls(Properties props) {
+        List<String> urls = new ArrayList<>();
+        for (String url : props.getProperty("db.replica.URLs", "").split(",")) {
+            if (!url.trim().isEmpty()) {
+                urls.add(url.trim());
+            }
+        }
+        return urls;
+    }
+
+    public Connection getReadConnection(boolean stickToPrimary) throws SQLException {
+        if (!stickToPrimary) {
+            List<Replica> tried = new ArrayList<>(1);
+            Replica replica;
+            while ((replica = pick(tried)) != null) {
+                tried.add(replica);
+                try {
+                    Connection conn = replica.pool.getConnection();
+                    replicaReads.incrementAndGet();
+                    return conn;
+                } catch (SQLTimeoutException e) {
+                    busy.incrementAndGet();
+                } catch (SQLException e) {
+                    replica.markDown(e.getMessage());
+                }
+                fallbacks.incrementAndGet();
+            }
+        }
+        Connection conn = primary.getConnection();
+        primaryReads.incrementAndGet();
+        return conn;
+    }
+
+    private Replica pick(List<Replica> tried) {
+        int count = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), count);
+        Replica best = null;
+        for (int i = 0; i < count; i++) {
+            Replica candidate = replicas.get((start + i) % count);
+            if (candidate.isUsable(maxLagSeconds) && !tried.contains(candidate)
+                    && (best == null || candidate.pool.getActiveCount() < best.pool.getActiveCount())) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    public void pinCustomer(Long customerId) {
+        if (customerId != null && stickyNanos > 0) {
+            pinnedCustomers.put(customerId, System.nanoTime() + stickyNanos);
+        }
+    }
+
+    public void pinAccount(Long accountId) {
+        if (accountId != null && stickyNanos > 0) {
+            pinnedAccounts.put(accountId, System.nanoTime() + stickyNanos);
+        }
+    }
+
+    public boolean isCustomerPinned(Long customerId) {
+        return isPinned(pinnedCustomers, customerId);
+    }
+
+    public boolean isAccountPinned(Long accountId) {
+        return isPinned(pinnedAccounts, accountId);
+    }
+
+    public boolean isAnyCustomerPinned(Collection<Long> customerIds) {
+        for (Long customerId : customerIds) {
+            if (isPinned(pinnedCustomers, customerId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPinned(Map<Long, Long> pins, Long id) {
+        Long until = id == null ? null : pins.get(id);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    private void checkHealth() {
+        long now = System.nanoTime();
+        pinnedCustomers.values().removeIf(until -> until - now <= 0);
+        pinnedAccounts.values().removeIf(until -> until - now <= 0);
+
+        for (Replica replica : replicas) {
+            try {
+                Long lag = readLag(replica.healthConnection());
+                if (lag == null) {
+                    replica.markDown("replication is not running");
+                } else {
+                    replica.markUp(lag, maxLagSeconds);
+                }
+            } catch (SQLException e) {
+                replica.closeHealthConnection();
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+
+    private static Long readLag(Connection conn) throws SQLException {
+        SQLException failure = null;
+        for (String query : STATUS_QUERIES) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(query)) {
+                if (!rs.next()) {
+                    return null;
+                }
+                for (String column : LAG_COLUMNS) {
+                    int index;
+                    try {
+                        index = rs.findColumn(column);
+                    } catch (SQLException e) {
+                        continue;
+                    }
+                    long lag = rs.getLong(index);
+                    return rs.wasNull() ? null : lag;
+                }
+                return null;
+            } catch (SQLException e) {
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    public int getReplicaCount() { return replicas.size(); }
+
+    public int getUsableReplicaCount() {
+        int usable = 0;
+        for (Replica replica : replicas) {
+            if (replica.isUsable(maxLagSeconds)) {
+                usable++;
+            }
+        }
+        return usable;
+    }
+
+    public long getReplicaReads() { return replicaReads.get(); }
+
+    public long getPrimaryReads() { return primaryReads.get(); }
+
+    public long getFallbackCount() { return fallbacks.get(); }
+
+    public long getBusyCount() { return busy.get(); }
+
+    public List<String> getReplicaStatus() {
+        List<String> status = new ArrayList<>();
+        for (Replica replica : replicas) {
+            status.add(String.format("%s healthy=%b lag=%ds %s", replica.url, replica.healthy, replica.lagSeconds,
+                    replica.pool.getStatistics()));
+        }
+        return Collections.unmodifiableList(status);
+    }
+
+    public String getStatistics() {
+        return String.format("replicas=%d, usable=%d, replicaReads=%d, primaryReads=%d, fallbacks=%d, busy=%d, pinnedCustomers=%d, pinnedAccounts=%d",
+                getReplicaCount(), getUsableReplicaCount(), getReplicaReads(), getPrimaryReads(), getFallbackCount(),
+                getBusyCount(), pinnedCustomers.size(), pinnedAccounts.size());
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        try {
+            healthChecker.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Replica replica : replicas) {
+            replica.closeHealthConnection();
+            replica.pool.close();
+        }
+    }
+
+    private static class Replica {
+        private final String url;
+        private final Properties credentials = new Properties();
+        private final ConnectionPool pool;
+        private Connection healthConnection;
+        private volatile boolean healthy;
+        private volatile long lagSeconds;
+
+        Replica(String url, String user, String password, ConnectionPool pool) {
+            this.url = url;
+            if (user != null) credentials.setProperty("user", user);
+            if (password != null) credentials.setProperty("password", password);
+            this.pool = pool;
+        }
+
+        // Checked over its own connection so a saturated read pool is never mistaken for a dead replica.
+        Connection healthConnection() throws SQLException {
+            if (healthConnection == null || healthConnection.isClosed()) {
+                healthConnection = DriverManager.getConnection(url, credentials);
+            }
+            return healthConnection;
+        }
+
+        void closeHealthConnection() {
+            if (healthConnection != null) {
+                try {
+                    healthConnection.close();
+                } catch (SQLException e) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Error closing replica health connection", "url", url, "error", e.getMessage());
+                    }
+                }
+                healthConnection = null;
+            }
+        }
+
+        boolean isUsable(long maxLagSeconds) {
+            return healthy && lagSeconds <= maxLagSeconds;
+        }
+
+        void markUp(long lag, long maxLagSeconds) {
+            boolean wasUsable = isUsable(maxLagSeconds);
+            lagSeconds = lag;
+            healthy = true;
+            if (wasUsable != isUsable(maxLagSeconds)) {
+                LOG.info(wasUsable ? "Replica lagging, reads fall back to primary" : "Replica available for reads",
+                        "url", url, "lagSeconds", lag);
+            }
+        }
+
+        void markDown(String reason) {
+            if (healthy) {
+                LOG.warn("Replica unavailable, reads fall back to primary", "url", url, "error", reason);
+            }
+            healthy = false;
+        }
+    }
+}
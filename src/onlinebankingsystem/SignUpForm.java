@@ -4,6 +4,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 
 public class SignUpForm extends JFrame {
     private DatabaseService dbService;
@@ -13,6 +15,7 @@ public class SignUpForm extends JFrame {
     private JTextField initialBalanceField;
     private JPasswordField passwordField;
     private JPasswordField confirmPasswordField;
+    private JButton signUpButton;
 
     public SignUpForm(DatabaseService dbService) {
         this.dbService = dbService;
@@ -51,7 +54,7 @@ public class SignUpForm extends JFrame {
         confirmPasswordField = new JPasswordField();
         panel.add(confirmPasswordField);
 
-        JButton signUpButton = new JButton("Sign Up");
+        signUpButton = new JButton("Sign Up");
         JButton cancelButton = new JButton("Cancel");
 
         panel.add(signUpButton);
@@ -97,14 +100,31 @@ public class SignUpForm extends JFrame {
 
             int initialBalance = initialBalanceStr.isEmpty() ? 0 : Integer.parseInt(initialBalanceStr);
 
-            boolean success = dbService.registerCustomerWithInitialBalance(firstName, lastName, phone, password, initialBalance);
-
-            if (success) {
-                JOptionPane.showMessageDialog(this, "Registration successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                dispose();
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to register. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            signUpButton.setEnabled(false);
+            new SwingWorker<Boolean, Void>() {
+                @Override
+                protected Boolean doInBackground() {
+                    return dbService.registerCustomerWithInitialBalance(firstName, lastName, phone, password, initialBalance);
+                }
+
+                @Override
+                protected void done() {
+                    signUpButton.setEnabled(true);
+                    try {
+                        if (get()) {
+                            JOptionPane.showMessageDialog(SignUpForm.this, "Registration successful!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                            dispose();
+                            return;
+                        }
+                    } catch (InterruptedException | ExecutionException e) {
+                        if (e.getCause() instanceof RejectedExecutionException) {
+                            JOptionPane.showMessageDialog(SignUpForm.this, "The system is busy. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                            return;
+                        }
+                    }
+                    JOptionPane.showMessageDialog(SignUpForm.this, "Failed to register. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }.execute();
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "Phone must be a number", "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -0,0 +1,194 @@
+package onlinebankingsystem;
+
+import java.util.Collections;
+
+final class SqlStatements {
+    static final String SELECT_ALL_CUSTOMERS = "SELECT id, first_name, last_name, phone, uid FROM customers";
+
+    static final String COUNT_CUSTOMERS = "SELECT COUNT(*) FROM customers";
+
+    static final String SELECT_CUSTOMER_BY_ID = "SELECT id, first_name, last_name, phone, uid FROM customers WHERE id = ?";
+
+    static final String SEARCH_CUSTOMERS_BY_NAME = "(SELECT id, first_name, last_name, phone FROM customers " +
+            "WHERE first_name LIKE ? ORDER BY first_name, id LIMIT ?) " +
+            "UNION " +
+            "(SELECT id, first_name, last_name, phone FROM customers " +
+            "WHERE last_name LIKE ? ORDER BY last_name, id LIMIT ?) " +
+            "ORDER BY first_name, last_name, id LIMIT ?";
+
+    static final String SEARCH_CUSTOMERS_BY_FULL_NAME = "SELECT id, first_name, last_name, phone FROM customers " +
+            "WHERE first_name LIKE ? AND last_name LIKE ? ORDER BY first_name, id LIMIT ?";
+
+    static final String SELECT_ACCOUNTS_BY_CUSTOMER = "SELECT * FROM account WHERE customer_id = ?";
+
+    static final String INSERT_AUTH_USER = "INSERT INTO auth_users (id) VALUES (?)";
+
+    static final String INSERT_CUSTOMER = "INSERT INTO customers (first_name, last_name, phone, uid, password) VALUES (?, ?, ?, ?, ?)";
+
+    static final String INSERT_ACCOUNT = "INSERT INTO account (customer_id, balance, status, type) VALUES (?, ?, ?, ?)";
+
+    static final String INSERT_DEPOSIT_TRANSACTION = "INSERT INTO transactions (type, toID, amount) VALUES (?, ?, ?)";
+
+    static final String SELECT_TRANSACTIONS_BY_ACCOUNT = "SELECT * FROM transactions WHERE fromID = ? OR toID = ? ORDER BY trans_id DESC";
+
+    static final String SELECT_TRANSACTION_PAGE = "(SELECT trans_id, type, fromID, toID, amount FROM transactions " +
+            "WHERE fromID = ? AND trans_id < ? ORDER BY trans_id DESC LIMIT ?) " +
+            "UNION " +
+            "(SELECT trans_id, type, fromID, toID, amount FROM transactions " +
+            "WHERE toID = ? AND trans_id < ? ORDER BY trans_id DESC LIMIT ?) " +
+            "ORDER BY trans_id DESC LIMIT ?";
+
+    static final String SELECT_STATEMENT_ROWS = "SELECT trans_id, type, fromID, toID, amount FROM transactions WHERE fromID = ? " +
+            "UNION ALL " +
+            "SELECT trans_id, type, fromID, toID, amount FROM transactions WHERE toID = ? AND NOT (fromID <=> ?) " +
+            "ORDER BY trans_id";
+
+    static final String CALL_TRANSFER_FUNDS = "{CALL TransferFunds(?, ?, ?)}";
+
+    static final String APPLY_BALANCE_DELTA = "UPDATE account SET balance = balance + ? WHERE account_id = ?";
+
+    static final String SELECT_LEDGER_ACCOUNT = "SELECT customer_id, balance FROM account WHERE account_id = ?";
+
+    static final String SELECT_JOURNAL_CHECKPOINT = "SELECT sequence FROM journal_checkpoint WHERE id = 1";
+
+    static final String UPSERT_JOURNAL_CHECKPOINT = "INSERT INTO journal_checkpoint (id, sequence) VALUES (1, ?) " +
+            "ON DUPLICATE KEY UPDATE sequence = GREATEST(sequence, VALUES(sequence))";
+
+    static final String INSERT_TRANSFER_TRANSACTION = "INSERT INTO transactions (type, fromID, toID, amount) VALUES ('transfer', ?, ?, ?)";
+
+    static final String SELECT_ACCOUNT_ID_BOUNDS = "SELECT MIN(account_id), MAX(account_id) FROM account";
+
+    static final String SELECT_ACCOUNT_BALANCE_RANGE = "SELECT account_id, balance FROM account " +
+            "WHERE account_id >= ? AND account_id < ? ORDER BY account_id";
+
+    static final String SUM_CREDITS_RANGE = "SELECT toID, SUM(amount) FROM transactions " +
+            "WHERE toID >= ? AND toID < ? GROUP BY toID";
+
+    static final String SUM_DEBITS_RANGE = "SELECT fromID, SUM(amount) FROM transactions " +
+            "WHERE fromID >= ? AND fromID < ? GROUP BY fromID";
+
+    static final String SELECT_LOANS_BY_CUSTOMER = "SELECT * FROM loans WHERE cust_id = ?";
+
+    static final String SELECT_LOAN_ACCOUNT = "SELECT account_id FROM account WHERE customer_id = ? AND type = 'LOAN'";
+
+    static final String INSERT_LOAN_ACCOUNT = "INSERT INTO account (customer_id, balance, status, type) VALUES (?, 0, 'active', 'LOAN')";
+
+    static final String INSERT_LOAN = "INSERT INTO loans (cust_id, amount, branch_id) VALUES (?, ?, ?)";
+
+    static final String CALL_TAKE_LOAN = "{CALL TakeLoan(?, ?, ?)}";
+
+    static final String SELECT_ALL_LOANS = "SELECT * FROM loans";
+
+    static final String SELECT_LOANS_WITH_CUSTOMER = "SELECT l.loan_id, l.cust_id, l.amount, l.branch_id, c.first_name, c.last_name " +
+            "FROM loans l JOIN customers c ON c.id = l.cust_id ORDER BY l.loan_id";
+
+    static final String SELECT_CUSTOMER_UID = "SELECT uid FROM customers WHERE id = ?";
+
+    static final String SELECT_CUSTOMER_PASSWORD = "SELECT password FROM customers WHERE id = ?";
+
+    static final String UPDATE_CUSTOMER_PASSWORD = "UPDATE customers SET password = ? WHERE id = ? AND password = ?";
+
+    static final String SELECT_ACCOUNT_IDS_BY_CUSTOMER = "SELECT account_id FROM account WHERE customer_id = ? ORDER BY account_id";
+
+    static final String DELETE_TRANSACTIONS_FROM_ACCOUNT = "DELETE FROM transactions WHERE fromID = ? ORDER BY trans_id LIMIT ?";
+
+    static final String DELETE_TRANSACTIONS_TO_ACCOUNT = "DELETE FROM transactions WHERE toID = ? ORDER BY trans_id LIMIT ?";
+
+    static final String DELETE_CUSTOMER_ACCOUNTS = "DELETE FROM account WHERE customer_id = ?";
+
+    static final String DELETE_CUSTOMER_LOANS = "DELETE FROM loans WHERE cust_id = ?";
+
+
+    static final String DELETE_CUSTOMER = "DELETE FROM customers WHERE id = ?";
+
+    static final String DELETE_AUTH_USER = "DELETE FROM auth_users WHERE id = ?";
+
+    static final String MAX_TRANSACTION_ID = "SELECT COALESCE(MAX(trans_id), 0) FROM transactions";
+
+    static final String SELECT_TRANSACTIONS_AFTER = "SELECT trans_id, type, fromID, toID, amount FROM transactions " +
+            "WHERE trans_id > ? ORDER BY trans_id LIMIT ?";
+
+    static final String MAX_LOAN_ID = "SELECT COALESCE(MAX(loan_id), 0) FROM loans";
+
+    static final String SELECT_LOANS_WITH_CUSTOMER_AFTER = "SELECT l.loan_id, l.cust_id, l.amount, l.branch_id, c.first_name, c.last_name " +
+            "FROM loans l JOIN customers c ON c.id = l.cust_id WHERE l.loan_id > ? ORDER BY l.loan_id LIMIT ?";
+
+    static final String MAX_CUSTOMER_ID = "SELECT COALESCE(MAX(id), 0) FROM customers";
+
+    static final String SELECT_CUSTOMERS_AFTER = "SELECT id, first_name, last_name, phone FROM customers " +
+            "WHERE id > ? ORDER BY id LIMIT ?";
+
+    static final String CUSTOMERS_CHECKSUM = checksum("customers", "id", "id, first_name, last_name, phone");
+
+    static final String LOANS_CHECKSUM = checksum("loans", "loan_id", "loan_id, cust_id, amount, IFNULL(branch_id, -1)");
+
+    private static String checksum(String table, String idColumn, String columns) {
+        String crc = "CRC32(CONCAT_WS('|', " + columns + "))";
+        return "SELECT COUNT(CASE WHEN " + idColumn + " <= ? THEN 1 END), " +
+                "COALESCE(BIT_XOR(CASE WHEN " + idColumn + " <= ? THEN " + crc + " END), 0), " +
+                "COUNT(*), COALESCE(BIT_XOR(" + crc + "), 0) " +
+                "FROM " + table + " WHERE " + idColumn + " <= ?";
+    }
+
+    private SqlStatements() {
+    }
+
+    static String selectCustomersByIds(int count) {
+        return "SELECT id, first_name, last_name, phone, uid FROM customers WHERE id IN (" + placeholders(count) + ")";
+    }
+
+    static String selectTransactionsByIds(int count) {
+        return "SELECT trans_id, type, fromID, toID, amount FROM transactions WHERE trans_id IN (" + placeholders(count) + ")";
+    }
+
+    static String selectLoansWithCustomerByIds(int count) {
+        return "SELECT l.loan_id, l.cust_id, l.amount, l.branch_id, c.first_name, c.last_name " +
+                "FROM loans l JOIN customers c ON c.id = l.cust_id WHERE l.loan_id IN (" + placeholders(count) + ")";
+    }
+
+    static String selectCustomerSummariesByIds(int count) {
+        return "SELECT id, first_name, last_name, phone FROM customers WHERE id IN (" + placeholders(count) + ")";
+    }
+
+    static String selectCustomerPage(CustomerSortColumn sortColumn, boolean ascending, boolean seek, boolean nullBoundary) {
+        String direction = ascending ? "ASC" : "DESC";
+        String after = ascending ? ">" : "<";
+        String column = sortColumn.getColumnName();
+        String where = "";
+        String orderBy;
+        if (sortColumn == CustomerSortColumn.ID) {
+            orderBy = "id " + direction;
+            if (seek) {
+                where = "WHERE id " + after + " ? ";
+            }
+        } else {
+            orderBy = column + " " + direction + ", id " + direction;
+            if (seek && nullBoundary) {
+                // NULLs sort first ascending and last descending
+                where = ascending
+                        ? "WHERE (" + column + " IS NULL AND id > ?) OR " + column + " IS NOT NULL "
+                        : "WHERE " + column + " IS NULL AND id < ? ";
+            } else if (seek) {
+                where = "WHERE (" + column + " " + after + " ? OR (" + column + " = ? AND id " + after + " ?)" +
+                        (ascending ? "" : " OR " + column + " IS NULL") + ") ";
+            }
+        }
+        return "SELECT id, first_name, last_name, phone FROM customers " + where +
+                "ORDER BY " + orderBy + " LIMIT ? OFFSET ?";
+    }
+
+    static String searchCustomersByPhone(int ranges) {
+        return "SELECT id, first_name, last_name, phone FROM customers WHERE " +
+                String.join(" OR ", Collections.nCopies(ranges, "phone BETWEEN ? AND ?")) +
+                " ORDER BY phone LIMIT ?";
+    }
+
+    static String lockAccountsForUpdate(int count) {
+        return "SELECT account_id, balance FROM account WHERE account_id IN (" + placeholders(count) + ") " +
+                "ORDER BY account_id FOR UPDATE";
+    }
+
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
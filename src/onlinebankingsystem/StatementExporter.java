@@ -0,0 +1,315 @@
+package onlinebankingsystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StatementExporter {
+    private static final Log LOG = Log.get(StatementExporter.class);
+    private static final byte[] CSV_HEADER = "trans_id,type,from_id,to_id,amount\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BINARY_MAGIC = {'O', 'B', 'S', 'T'};
+    private static final byte BINARY_VERSION = 1;
+    private static final byte TAG_ROW = 0;
+    private static final byte TAG_TYPE = 1;
+    private static final byte TAG_END = 2;
+    private static final int MAX_TYPE_BYTES = 255;
+    private static final int MAX_ROW_BYTES = 4 * 21 + 2 * MAX_TYPE_BYTES + 8;
+
+    public enum Format {
+        CSV("csv"),
+        BINARY("bin");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() { return extension; }
+    }
+
+    private final DatabaseService db;
+    private final DatabaseMetrics metrics;
+    private final int fetchSize;
+    private final int bufferBytes;
+    private final int parallelism;
+
+    public StatementExporter(DatabaseService db, Properties props) {
+        this.db = db;
+        this.metrics = db.getMetrics();
+        int configuredFetchSize = Config.getInt(props, "export.fetchSize", 0);
+        this.fetchSize = configuredFetchSize > 0 ? configuredFetchSize : Integer.MIN_VALUE;
+        this.bufferBytes = Math.max(MAX_ROW_BYTES * 4, Config.getInt(props, "export.bufferBytes", 256 * 1024));
+        int requested = Config.getInt(props, "export.parallelism", 4);
+        this.parallelism = Math.max(1, Math.min(requested, db.getConnectionPool().getMaxSize()));
+    }
+
+    public long exportAccount(long accountId, Path file, Format format) throws SQLException, IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferBytes);
+        return exportAccount(accountId, file, format, buffer)[0];
+    }
+
+    public ExportSummary exportAccounts(List<Long> accountIds, Path directory, Format format) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        Files.createDirectories(directory);
+        BlockingQueue<ByteBuffer> buffers = new ArrayBlockingQueue<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            buffers.add(ByteBuffer.allocateDirect(bufferBytes));
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "statement-export-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        List<Future<long[]>> results = new ArrayList<>();
+        for (Long accountId : accountIds) {
+            results.add(pool.submit(() -> {
+                ByteBuffer buffer = buffers.take();
+                try {
+                    Path file = directory.resolve("statement-" + accountId + "." + format.getExtension());
+                    return exportAccount(accountId, file, format, buffer);
+                } finally {
+                    buffers.put(buffer);
+                }
+            }));
+        }
+
+        long rows = 0;
+        long bytes = 0;
+        int failed = 0;
+        try {
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    long[] result = results.get(i).get();
+                    rows += result[0];
+                    bytes += result[1];
+                } catch (Exception e) {
+                    failed++;
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    LOG.error("Statement export failed", "accountId", accountIds.get(i), "error", cause.getMessage());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ExportSummary summary = new ExportSummary(accountIds.size(), failed, rows, bytes,
+                System.currentTimeMillis() - startedAt);
+        LOG.info("Statement export finished", "summary", summary, "directory", directory.toAbsolutePath());
+        return summary;
+    }
+
+    private long[] exportAccount(long accountId, Path file, Format format, ByteBuffer buffer) throws SQLException, IOException {
+        long started = System.nanoTime();
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        long rows = 0;
+        long bytes;
+
+        try (Connection conn = db.getReadConnection(db.isAccountPinned(accountId));
+             PreparedStatement stmt = conn.prepareStatement(SqlStatements.SELECT_STATEMENT_ROWS,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            stmt.setFetchSize(fetchSize);
+            stmt.setLong(1, accountId);
+            stmt.setLong(2, accountId);
+            stmt.setLong(3, accountId);
+
+            buffer.clear();
+            Map<String, Integer> typeCodes = new HashMap<>();
+            if (format == Format.CSV) {
+                buffer.put(CSV_HEADER);
+            } else {
+                buffer.put(BINARY_MAGIC).put(BINARY_VERSION).putLong(accountId);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (buffer.remaining() < MAX_ROW_BYTES) {
+                        drain(channel, buffer);
+                    }
+                    long transId = rs.getLong(1);
+                    String type = rs.getString(2);
+                    long fromId = rs.getLong(3);
+                    long toId = rs.getLong(4);
+                    long amount = rs.getLong(5);
+                    if (format == Format.CSV) {
+                        encodeCsv(buffer, transId, type, fromId, toId, amount);
+                    } else {
+                        encodeBinary(buffer, typeCodes, transId, type, fromId, toId, amount);
+                    }
+                    rows++;
+                }
+            }
+
+            if (buffer.remaining() < 9) {
+                drain(channel, buffer);
+            }
+            if (format == Format.BINARY) {
+                buffer.put(TAG_END).putLong(rows);
+            }
+            drain(channel, buffer);
+            channel.force(false);
+            bytes = channel.size();
+        } catch (SQLException e) {
+            metrics.recordError("exportStatement", e);
+            Files.deleteIfExists(partial);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        } finally {
+            metrics.record("exportStatement", started);
+        }
+
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Statement exported", "accountId", accountId, "rows", rows, "bytes", bytes, "file", file);
+        }
+        return new long[] {rows, bytes};
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void encodeCsv(ByteBuffer buffer, long transId, String type, long fromId, long toId, long amount) {
+        putDecimal(buffer, transId);
+        buffer.put((byte) ',');
+        putCsvText(buffer, type);
+        buffer.put((byte) ',');
+        putDecimal(buffer, fromId);
+        buffer.put((byte) ',');
+        putDecimal(buffer, toId);
+        buffer.put((byte) ',');
+        putDecimal(buffer, amount);
+        buffer.put((byte) '\n');
+    }
+
+    private static void encodeBinary(ByteBuffer buffer, Map<String, Integer> typeCodes, long transId, String type,
+                                     long fromId, long toId, long amount) {
+        String name = type == null ? "" : type;
+        Integer code = typeCodes.get(name);
+        if (code == null) {
+            if (typeCodes.size() == 256) {
+                throw new IllegalStateException("More than 256 distinct transaction types");
+            }
+            code = typeCodes.size();
+            typeCodes.put(name, code);
+            byte[] encoded = truncated(name);
+            buffer.put(TAG_TYPE).put((byte) (int) code).put((byte) encoded.length).put(encoded);
+        }
+        buffer.put(TAG_ROW)
+                .putLong(transId)
+                .put((byte) (int) code)
+                .putLong(fromId)
+                .putLong(toId)
+                .putLong(amount);
+    }
+
+    private static void putCsvText(ByteBuffer buffer, String text) {
+        if (text == null) {
+            return;
+        }
+        byte[] encoded = truncated(text);
+        boolean quote = false;
+        for (byte b : encoded) {
+            if (b == ',' || b == '"' || b == '\n' || b == '\r') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            buffer.put(encoded);
+            return;
+        }
+        buffer.put((byte) '"');
+        for (byte b : encoded) {
+            if (b == '"') {
+                buffer.put((byte) '"');
+            }
+            buffer.put(b);
+        }
+        buffer.put((byte) '"');
+    }
+
+    private static byte[] truncated(String text) {
+        byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+        if (encoded.length <= MAX_TYPE_BYTES) {
+            return encoded;
+        }
+        byte[] result = new byte[MAX_TYPE_BYTES];
+        System.arraycopy(encoded, 0, result, 0, MAX_TYPE_BYTES);
+        return result;
+    }
+
+    private static void putDecimal(ByteBuffer buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.put("-9223372036854775808".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = buffer.position() + digits;
+        for (int i = end - 1; i >= buffer.position(); i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(end);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: StatementExporter <outputDir> <csv|binary> <accountId> [accountId...]");
+            return;
+        }
+        Format format = args[1].equalsIgnoreCase("binary") ? Format.BINARY : Format.CSV;
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            accountIds.add(Long.parseLong(args[i]));
+        }
+        Properties props = DatabaseService.loadDatabaseProperties();
+        DatabaseService db = new DatabaseService(props);
+        try {
+            ExportSummary summary = new StatementExporter(db, props).exportAccounts(accountIds, Paths.get(args[0]), format);
+            System.out.println(summary);
+        } finally {
+            db.close();
+            Log.shutdown();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package onlinebankingsystem;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+public class TransactionBlock {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private long[] transIds;
+    private long[] fromIds;
+    private long[] toIds;
+    private long[] amounts;
+    private byte[] types;
+    private final List<String> typeNames = new ArrayList<>();
+    private int size;
+
+    public TransactionBlock() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TransactionBlock(int capacity) {
+        int initial = Math.max(1, capacity);
+        transIds = new long[initial];
+        fromIds = new long[initial];
+        toIds = new long[initial];
+        amounts = new long[initial];
+        types = new byte[initial];
+    }
+
+    public static TransactionBlock fromResultSet(ResultSet rs) throws SQLException {
+        TransactionBlock block = new TransactionBlock();
+        int transId = rs.findColumn("trans_id");
+        int type = rs.findColumn("type");
+        int fromId = rs.findColumn("fromID");
+        int toId = rs.findColumn("toID");
+        int amount = rs.findColumn("amount");
+        while (rs.next()) {
+            block.add(rs.getLong(transId), rs.getString(type), rs.getLong(fromId), rs.getLong(toId), rs.getLong(amount));
+        }
+        return block;
+    }
+
+    public void add(long transId, String type, long fromId, long toId, long amount) {
+        if (size == transIds.length) {
+            grow();
+        }
+        transIds[size] = transId;
+        fromIds[size] = fromId;
+        toIds[size] = toId;
+        amounts[size] = amount;
+        types[size] = typeCode(type);
+        size++;
+    }
+
+    public int size() { return size; }
+
+    public long getTransId(int index) { return transIds[check(index)]; }
+
+    public long getFromId(int index) { return fromIds[check(index)]; }
+
+    public long getToId(int index) { return toIds[check(index)]; }
+
+    public long getAmount(int index) { return amounts[check(index)]; }
+
+    public String getType(int index) { return typeNames.get(types[check(index)] & 0xFF); }
+
+    public Transaction toTransaction(int index) {
+        check(index);
+        return new Transaction(transIds[index], typeNames.get(types[index] & 0xFF), fromIds[index], toIds[index], amounts[index]);
+    }
+
+    public List<Transaction> asList() {
+        return new TransactionView();
+    }
+
+    public long totalAmount() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += amounts[i];
+        }
+        return total;
+    }
+
+    public Map<String, Long> totalsByType() {
+        long[] totals = new long[typeNames.size()];
+        for (int i = 0; i < size; i++) {
+            totals[types[i] & 0xFF] += amounts[i];
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int code = 0; code < totals.length; code++) {
+            result.put(typeNames.get(code), totals[code]);
+        }
+        return result;
+    }
+
+    public long netFlow(long accountId) {
+        long net = 0;
+        for (int i = 0; i < size; i++) {
+            if (toIds[i] == accountId) {
+                net += amounts[i];
+            }
+            if (fromIds[i] == accountId) {
+                net -= amounts[i];
+            }
+        }
+        return net;
+    }
+
+    public long estimatedBytes() {
+        int capacity = transIds.length;
+        return 4L * (16 + 8L * capacity) + (16 + capacity) + 64;
+    }
+
+    public void trimToSize() {
+        if (size < transIds.length) {
+            resize(Math.max(1, size));
+        }
+    }
+
+    private byte typeCode(String type) {
+        String name = type == null ? "" : type;
+        int code = typeNames.indexOf(name);
+        if (code < 0) {
+            if (typeNames.size() == 256) {
+                throw new IllegalStateException("More than 256 distinct transaction types");
+            }
+            typeNames.add(name);
+            code = typeNames.size() - 1;
+        }
+        return (byte) code;
+    }
+
+    private void grow() {
+        resize(transIds.length + (transIds.length >> 1) + 1);
+    }
+
+    private void resize(int capacity) {
+        transIds = Arrays.copyOf(transIds, capacity);
+        fromIds = Arrays.copyOf(fromIds, capacity);
+        toIds = Arrays.copyOf(toIds, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        types = Arrays.copyOf(types, capacity);
+    }
+
+    private int check(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    private class TransactionView extends AbstractList<Transaction> implements RandomAccess {
+        @Override
+        public Transaction get(int index) {
+            return toTransaction(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
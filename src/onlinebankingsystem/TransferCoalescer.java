@@ -0,0 +1,179 @@
+package onlinebankingsystem;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TransferCoalescer implements AutoCloseable {
+    private static final Log LOG = Log.get(TransferCoalescer.class);
+
+    private final DatabaseService db;
+    private final DatabaseMetrics metrics;
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final Thread[] workers;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong transfers = new AtomicLong();
+    private volatile boolean running = true;
+
+    public TransferCoalescer(DatabaseService db, Properties props) {
+        this.db = db;
+        this.metrics = db.getMetrics();
+        this.maxBatch = Math.max(1, Config.getInt(props, "transfer.coalesce.maxBatch", 100));
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, Config.getLong(props, "transfer.coalesce.maxWaitMicros", 200)));
+        this.workers = new Thread[Math.max(1, Config.getInt(props, "transfer.coalesce.workers", 2))];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(this::runWorker, "transfer-coalescer-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    public CompletableFuture<TransferResult> submit(TransferRequest request) {
+        Pending pending = new Pending(request);
+        if (!running) {
+            pending.future.complete(new TransferResult(request, TransferResult.Status.FAILED));
+            return pending.future;
+        }
+        queue.add(pending);
+        if (!running && queue.remove(pending)) {
+            pending.future.complete(new TransferResult(request, TransferResult.Status.FAILED));
+        }
+        return pending.future;
+    }
+
+    public long getBatchCount() { return batches.get(); }
+
+    public long getTransferCount() { return transfers.get(); }
+
+    public double getAverageBatchSize() {
+        long count = batches.get();
+        return count == 0 ? 0.0 : (double) transfers.get() / count;
+    }
+
+    private void runWorker() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        int previousSize = 1;
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                if (previousSize > 1 && batch.size() < maxBatch && maxWaitNanos > 0) {
+                    linger(batch, System.nanoTime() + maxWaitNanos);
+                }
+            } catch (InterruptedException e) {
+                if (batch.isEmpty()) {
+                    continue;
+                }
+            }
+            previousSize = batch.size();
+            apply(batch);
+            batch.clear();
+        }
+    }
+
+    private void linger(List<Pending> batch, long deadline) throws InterruptedException {
+        while (batch.size() < maxBatch) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatch - batch.size());
+        }
+    }
+
+    private void apply(List<Pending> batch) {
+        long started = System.nanoTime();
+        List<TransferRequest> requests = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            requests.add(pending.request);
+        }
+
+        List<TransferResult> results = null;
+        try (Connection conn = db.getConnection()) {
+            try {
+                results = db.applyTransferChunk(conn, requests, "transferCoalescedBatch");
+            } catch (SQLException e) {
+                LOG.warn("Coalesced batch failed, retrying transfers one by one", "size", batch.size(), "error", e.getMessage());
+                results = applyOneByOne(conn, requests);
+            }
+        } catch (SQLException e) {
+            metrics.recordError("transferCoalescedBatch", e);
+            LOG.error("Error applying coalesced transfers", "size", batch.size(), "error", e.getMessage());
+        } finally {
+            metrics.record("transferCoalescedBatch", started);
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            pending.future.complete(results != null && i < results.size()
+                    ? results.get(i)
+                    : new TransferResult(pending.request, TransferResult.Status.FAILED));
+        }
+        batches.incrementAndGet();
+        transfers.addAndGet(batch.size());
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Applied coalesced transfers", "size", batch.size(),
+                    "micros", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+        }
+    }
+
+    private List<TransferResult> applyOneByOne(Connection conn, List<TransferRequest> requests) {
+        List<TransferResult> results = new ArrayList<>(requests.size());
+        for (TransferRequest request : requests) {
+            try {
+                results.addAll(db.applyTransferChunk(conn, Collections.singletonList(request), "transferCoalescedBatch"));
+            } catch (SQLException e) {
+                results.add(new TransferResult(request, TransferResult.Status.FAILED));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.complete(new TransferResult(pending.request, TransferResult.Status.FAILED));
+        }
+        LOG.info("Transfer coalescer closed", "batches", batches.get(), "transfers", transfers.get(),
+                "averageBatch", String.format("%.1f", getAverageBatchSize()));
+    }
+
+    private static class Pending {
+        private final TransferRequest request;
+        private final CompletableFuture<TransferResult> future = new CompletableFuture<>();
+
+        Pending(TransferRequest request) {
+            this.request = request;
+        }
+    }
+}
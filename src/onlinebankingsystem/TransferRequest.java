@@ -0,0 +1,17 @@
+package onlinebankingsystem;
+
+public class TransferRequest {
+    private final Long fromAccountId;
+    private final Long toAccountId;
+    private final Long amount;
+
+    public TransferRequest(Long fromAccountId, Long toAccountId, Long amount) {
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+    }
+
+    public Long getFromAccountId() { return fromAccountId; }
+    public Long getToAccountId() { return toAccountId; }
+    public Long getAmount() { return amount; }
+}
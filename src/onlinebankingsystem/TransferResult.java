@@ -0,0 +1,35 @@
+package onlinebankingsystem;
+
+public class TransferResult {
+    public enum Status {
+        SUCCESS,
+        INSUFFICIENT_FUNDS,
+        INVALID_ACCOUNT,
+        FAILED,
+        // Applied to the ledger but not confirmed durable before it stopped; retrying would apply it twice.
+        PENDING;
+
+        public boolean isApplied() {
+            return this == SUCCESS || this == PENDING;
+        }
+    }
+
+    private final TransferRequest request;
+    private final Status status;
+
+    public TransferResult(TransferRequest request, Status status) {
+        this.request = request;
+        this.status = status;
+    }
+
+    public TransferRequest getRequest() { return request; }
+    public Status getStatus() { return status; }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    public boolean isApplied() {
+        return status.isApplied();
+    }
+}
@@ -0,0 +1,66 @@
+package onlinebankingsystem;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class VirtualThreads {
+    private static final Log LOG = Log.get(VirtualThreads.class);
+    private static final Method NEW_PER_TASK_EXECUTOR = lookupPerTaskExecutor();
+
+    private VirtualThreads() {
+    }
+
+    static boolean isAvailable() {
+        return NEW_PER_TASK_EXECUTOR != null;
+    }
+
+    static ExecutorService newPerTaskExecutor(String name, int fallbackThreads) {
+        ExecutorService executor = newVirtualExecutor();
+        return executor != null ? executor : Executors.newFixedThreadPool(Math.max(1, fallbackThreads), threadFactory(name));
+    }
+
+    static ExecutorService newPerTaskExecutor(String name, int fallbackThreads, int fallbackQueueCapacity) {
+        ExecutorService executor = newVirtualExecutor();
+        if (executor != null) {
+            return executor;
+        }
+        int threads = Math.max(1, fallbackThreads);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, fallbackQueueCapacity)), threadFactory(name),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static ExecutorService newVirtualExecutor() {
+        if (NEW_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_PER_TASK_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LOG.info("Virtual threads unavailable, using platform threads", "reason", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static Method lookupPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
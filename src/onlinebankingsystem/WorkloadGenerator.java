@@ -0,0 +1,326 @@
+package onlinebankingsystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class WorkloadGenerator {
+    private static final Log LOG = Log.get(WorkloadGenerator.class);
+    private static final String[] OPERATIONS = {"transfer", "history", "loan", "signup"};
+
+    private final DatabaseService db;
+    private final int customers;
+    private final int phoneBase;
+    private final long initialBalance;
+    private final double rate;
+    private final boolean poisson;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final int maxClients;
+    private final int maxInFlight;
+    private final double zipfExponent;
+    private final long seed;
+    private final int[] mixWeights = new int[OPERATIONS.length];
+    private final int mixTotal;
+
+    private final List<Long> customerIds = new ArrayList<>();
+    private final List<Long> accountIds = new ArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private ZipfSampler hotAccounts;
+
+    public WorkloadGenerator(DatabaseService db, Properties props) {
+        this.db = db;
+        this.customers = Math.max(2, Config.getInt(props, "workload.customers", 1_000));
+        this.phoneBase = Config.getInt(props, "workload.phoneBase", 1_500_000_000);
+        this.initialBalance = Config.getLong(props, "workload.initialBalance", 1_000_000);
+        this.rate = Math.max(1, Config.getInt(props, "workload.rate", 1_000));
+        this.poisson = !"uniform".equalsIgnoreCase(props.getProperty("workload.arrival", "poisson"));
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(Math.max(0, Config.getLong(props, "workload.warmupSeconds", 5)));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Math.max(1, Config.getLong(props, "workload.durationSeconds", 60)));
+        this.maxClients = Math.max(1, Config.getInt(props, "workload.clients", 256));
+        this.maxInFlight = Math.max(1, Config.getInt(props, "workload.maxInFlight", 10_000));
+        this.zipfExponent = Double.parseDouble(props.getProperty("workload.zipfExponent", "0.99"));
+        this.seed = Config.getLong(props, "workload.seed", 42);
+
+        String mix = props.getProperty("workload.mix", "transfer:80,history:15,loan:3,signup:2");
+        int total = 0;
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split(":");
+            int index = operationIndex(entry[0].trim());
+            if (index < 0 || entry.length != 2) {
+                throw new IllegalArgumentException("Invalid workload.mix entry: " + part);
+            }
+            mixWeights[index] = Math.max(0, Integer.parseInt(entry[1].trim()));
+            total += mixWeights[index];
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("workload.mix has no positive weights");
+        }
+        this.mixTotal = total;
+    }
+
+    public void seed() throws InterruptedException {
+        long started = System.currentTimeMillis();
+        Semaphore permits = new Semaphore(db.getConnectionPool().getMaxSize());
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("workload-seed", db.getConnectionPool().getMaxSize());
+        Long[] seededCustomers = new Long[customers];
+        Long[] seededAccounts = new Long[customers];
+        AtomicInteger created = new AtomicInteger();
+
+        for (int i = 0; i < customers; i++) {
+            int index = i;
+            permits.acquire();
+            executor.execute(() -> {
+                try {
+                    int phone = phoneBase + index;
+                    if (db.registerCustomerWithInitialBalance("Load", "Customer" + index, phone,
+                            "load-" + index, initialBalance)) {
+                        created.incrementAndGet();
+                    }
+                    for (Customer customer : db.searchCustomers(Integer.toString(phone), 1)) {
+                        if (customer.getPhone() == phone) {
+                            seededCustomers[index] = customer.getId();
+                            for (Account account : db.getAccountsByCustomerId(customer.getId())) {
+                                if ("savings".equals(account.getType())) {
+                                    seededAccounts[index] = account.getAccountId();
+                                    break;
+                                }
+                            }
+                        }
+                    }
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+
+        for (int i = 0; i < customers; i++) {
+            if (seededCustomers[i] != null && seededAccounts[i] != null) {
+                customerIds.add(seededCustomers[i]);
+                accountIds.add(seededAccounts[i]);
+            }
+        }
+        if (accountIds.size() < 2) {
+            throw new IllegalStateException("Seeding produced fewer than two usable accounts");
+        }
+        Collections.shuffle(accountIds, new Random(seed));
+        hotAccounts = new ZipfSampler(accountIds.size(), zipfExponent);
+        LOG.info("Workload seeded", "customers", customerIds.size(), "created", created.get(),
+                "reused", customerIds.size() - created.get(), "millis", System.currentTimeMillis() - started);
+    }
+
+    public WorkloadReport run() throws InterruptedException {
+        if (hotAccounts == null) {
+            seed();
+        }
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            if (mixWeights[i] > 0) {
+                stats.put(OPERATIONS[i], new OperationStats());
+            }
+        }
+
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("workload", maxClients);
+        Random arrivals = new Random(seed);
+        long intervalNanos = (long) (1e9 / rate);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long scheduled = 0;
+        LongAdder dropped = new LongAdder();
+        long lastProgressAt = start;
+
+        LOG.info("Workload started", "rate", rate, "arrival", poisson ? "poisson" : "uniform",
+                "warmupSeconds", TimeUnit.NANOSECONDS.toSeconds(warmupNanos),
+                "durationSeconds", TimeUnit.NANOSECONDS.toSeconds(durationNanos),
+                "clients", maxClients, "virtualThreads", VirtualThreads.isAvailable());
+
+        for (long intended = start; intended < end; ) {
+            long now = System.nanoTime();
+            if (intended > now) {
+                LockSupport.parkNanos(intended - now);
+                continue;
+            }
+            boolean measured = intended >= measureFrom;
+            String operation = pickOperation(arrivals.nextInt(mixTotal));
+            if (measured) {
+                scheduled++;
+            }
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    dropped.increment();
+                }
+            } else {
+                inFlight.incrementAndGet();
+                long scheduledAt = intended;
+                OperationStats target = measured ? stats.get(operation) : null;
+                executor.execute(() -> execute(operation, scheduledAt, target));
+            }
+            intended += poisson ? (long) (-Math.log(1.0 - arrivals.nextDouble()) * intervalNanos) : intervalNanos;
+
+            if (now - lastProgressAt >= TimeUnit.SECONDS.toNanos(5)) {
+                lastProgressAt = now;
+                LOG.info("Workload progress", "elapsedSeconds", TimeUnit.NANOSECONDS.toSeconds(now - start),
+                        "inFlight", inFlight.get(), "dropped", dropped.sum());
+            }
+        }
+
+        executor.shutdown();
+        if (!executor.awaitTermination(2, TimeUnit.MINUTES)) {
+            LOG.warn("Workload clients did not finish in time", "inFlight", inFlight.get());
+            executor.shutdownNow();
+        }
+        return new WorkloadReport(durationNanos, scheduled, dropped.sum(), stats);
+    }
+
+    private void execute(String operation, long intended, OperationStats stats) {
+        long started = System.nanoTime();
+        boolean ok;
+        try {
+            ok = perform(operation);
+        } catch (RuntimeException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Workload operation failed", "operation", operation, "error", e.getMessage());
+            }
+            ok = false;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        long finished = System.nanoTime();
+        if (stats != null) {
+            stats.record(ok, finished - intended, finished - started);
+        }
+    }
+
+    private boolean perform(String operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case "transfer": {
+                int from = hotAccounts.sample(random);
+                int to = hotAccounts.sample(random);
+                if (to == from) {
+                    to = (from + 1) % accountIds.size();
+                }
+                return db.transferFunds(accountIds.get(from), accountIds.get(to), 1L + random.nextInt(100));
+            }
+            case "history":
+                db.getTransactionsByAccountId(accountIds.get(hotAccounts.sample(random)));
+                return true;
+            case "loan":
+                return db.takeLoan(customerIds.get(random.nextInt(customerIds.size())), 100L + random.nextInt(1_000), null);
+            case "signup": {
+                int phone = 2_000_000_000 + random.nextInt(Integer.MAX_VALUE - 2_000_000_000);
+                return db.registerCustomerWithInitialBalance("Load", "Signup", phone, "signup-" + phone, 1_000);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private String pickOperation(int ticket) {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            ticket -= mixWeights[i];
+            if (ticket < 0) {
+                return OPERATIONS[i];
+            }
+        }
+        return OPERATIONS[0];
+    }
+
+    private static int operationIndex(String name) {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            if (OPERATIONS[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static class OperationStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final AtomicLong succeeded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        OperationStats() {
+        }
+
+        void record(boolean ok, long latencyNanos, long serviceNanos) {
+            (ok ? succeeded : failed).incrementAndGet();
+            latency.record(latencyNanos);
+            serviceTime.record(serviceNanos);
+        }
+
+        public LatencyHistogram getLatency() { return latency; }
+        public LatencyHistogram getServiceTime() { return serviceTime; }
+        public long getSucceeded() { return succeeded.get(); }
+        public long getFailed() { return failed.get(); }
+    }
+
+    static class ZipfSampler {
+        private final double[] cumulative;
+
+        ZipfSampler(int size, double exponent) {
+            cumulative = new double[size];
+            double sum = 0;
+            for (int rank = 0; rank < size; rank++) {
+                sum += exponent <= 0 ? 1.0 : 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < size; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        int sample(Random random) {
+            double u = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulative[middle] < u) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Properties props = DatabaseService.loadDatabaseProperties();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                System.err.println("Usage: WorkloadGenerator [key=value ...]  e.g. workload.rate=1000 workload.durationSeconds=60");
+                return;
+            }
+            props.setProperty(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        DatabaseService db = new DatabaseService(props);
+        try {
+            WorkloadReport report = new WorkloadGenerator(db, props).run();
+            LOG.info("Workload finished", "throughput", String.format("%.1f", report.getThroughput()),
+                    "dropped", report.getDropped());
+            System.out.println(report);
+        } finally {
+            db.close();
+            Log.shutdown();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package onlinebankingsystem;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class WorkloadReport {
+    private final long measuredNanos;
+    private final long scheduled;
+    private final long dropped;
+    private final Map<String, WorkloadGenerator.OperationStats> operations;
+
+    public WorkloadReport(long measuredNanos, long scheduled, long dropped,
+                          Map<String, WorkloadGenerator.OperationStats> operations) {
+        this.measuredNanos = measuredNanos;
+        this.scheduled = scheduled;
+        this.dropped = dropped;
+        this.operations = operations;
+    }
+
+    public long getMeasuredNanos() { return measuredNanos; }
+    public long getScheduled() { return scheduled; }
+    public long getDropped() { return dropped; }
+    public Map<String, WorkloadGenerator.OperationStats> getOperations() { return operations; }
+
+    public double getThroughput() {
+        long completed = 0;
+        for (WorkloadGenerator.OperationStats stats : operations.values()) {
+            completed += stats.getSucceeded() + stats.getFailed();
+        }
+        return measuredNanos == 0 ? 0.0 : completed * 1e9 / measuredNanos;
+    }
+
+    @Override
+    public String toString() {
+        double seconds = measuredNanos / 1e9;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("measured=%.1fs scheduled=%d dropped=%d throughput=%.1f ops/s%n",
+                seconds, scheduled, dropped, getThroughput()));
+        out.append(String.format("%-10s %8s %8s %9s %9s %9s %9s %9s %9s %11s%n",
+                "operation", "ok", "failed", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms"));
+        for (Map.Entry<String, WorkloadGenerator.OperationStats> entry : operations.entrySet()) {
+            WorkloadGenerator.OperationStats stats = entry.getValue();
+            LatencyHistogram latency = stats.getLatency();
+            out.append(String.format("%-10s %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f%n",
+                    entry.getKey(), stats.getSucceeded(), stats.getFailed(),
+                    seconds == 0 ? 0.0 : (stats.getSucceeded() + stats.getFailed()) / seconds,
+                    millis(latency.getPercentileNanos(50)), millis(latency.getPercentileNanos(90)),
+                    millis(latency.getPercentileNanos(99)), millis(latency.getPercentileNanos(99.9)),
+                    millis(latency.getMaxNanos()), millis(stats.getServiceTime().getPercentileNanos(99))));
+        }
+        return out.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
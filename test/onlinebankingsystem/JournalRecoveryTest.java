@@ -0,0 +1,162 @@
+package onlinebankingsystem;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class JournalRecoveryTest {
+    private static final int RECORD_BYTES = 4 + 8 + 1 + 8 + 8 + 8 + 4;
+    private static final int SEGMENT_BYTES = RECORD_BYTES * 16;
+
+    public static void main(String[] args) throws Exception {
+        replaysEverythingAfterTheCheckpoint();
+        truncatedSegmentReplaysTheIntactPrefix();
+        tornRecordDropsTheRestOfTheJournal();
+        releaseKeepsSegmentsAboveTheCheckpoint();
+        System.out.println("JournalRecoveryTest passed");
+    }
+
+    static void replaysEverythingAfterTheCheckpoint() throws IOException {
+        Path dir = Files.createTempDirectory("journal");
+        try {
+            try (Journal journal = open(dir)) {
+                appendTransfers(journal, 40);
+                journal.awaitDurable(40);
+            }
+            try (Journal journal = open(dir)) {
+                check(journal.getLastSequence() == 40, "last sequence after reopen", journal.getLastSequence());
+                List<LedgerPosting> postings = journal.readAfter(25);
+                check(postings.size() == 15, "postings after checkpoint 25", postings.size());
+                for (int i = 0; i < postings.size(); i++) {
+                    LedgerPosting posting = postings.get(i);
+                    check(posting.sequence == 26 + i, "replay order", posting.sequence);
+                    check(LedgerPosting.TRANSFER.equals(posting.type), "posting type", posting.type);
+                    check(posting.fromAccountId == posting.sequence && posting.toAccountId == posting.sequence + 1000
+                            && posting.amount == posting.sequence * 10, "posting payload", posting.sequence);
+                }
+                check(journal.append(LedgerPosting.LOAN_DEPOSIT, null, 7L, 500) == 41, "next sequence", journal.getLastSequence());
+            }
+            try (Journal journal = open(dir)) {
+                LedgerPosting deposit = journal.readAfter(40).get(0);
+                check(deposit.fromAccountId == null && deposit.toAccountId == 7L && deposit.amount == 500
+                        && LedgerPosting.LOAN_DEPOSIT.equals(deposit.type), "deposit round trip", deposit.sequence);
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    static void truncatedSegmentReplaysTheIntactPrefix() throws IOException {
+        Path dir = Files.createTempDirectory("journal");
+        try {
+            try (Journal journal = open(dir)) {
+                appendTransfers(journal, 10);
+                journal.awaitDurable(10);
+            }
+            Path segment = segments(dir).get(0);
+            try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+                file.setLength(6 * RECORD_BYTES + RECORD_BYTES / 2);
+            }
+            try (Journal journal = open(dir)) {
+                check(journal.getLastSequence() == 6, "last sequence after truncation", journal.getLastSequence());
+                check(journal.readAfter(0).size() == 6, "replayed postings after truncation", journal.readAfter(0).size());
+                check(journal.append(LedgerPosting.TRANSFER, 1L, 2L, 3) == 7, "append reuses the torn sequence", journal.getLastSequence());
+                journal.awaitDurable(7);
+            }
+            try (Journal journal = open(dir)) {
+                List<LedgerPosting> postings = journal.readAfter(6);
+                check(postings.size() == 1 && postings.get(0).amount == 3, "record written over the torn tail", postings.size());
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    static void tornRecordDropsTheRestOfTheJournal() throws IOException {
+        Path dir = Files.createTempDirectory("journal");
+        try {
+            try (Journal journal = open(dir)) {
+                appendTransfers(journal, 40);
+                journal.awaitDurable(40);
+                check(journal.getSegmentCount() == 3, "segments before tear", journal.getSegmentCount());
+            }
+            Path first = segments(dir).get(0);
+            try (RandomAccessFile file = new RandomAccessFile(first.toFile(), "rw")) {
+                long offset = 9L * RECORD_BYTES + 20;
+                file.seek(offset);
+                int original = file.read();
+                file.seek(offset);
+                file.write(original ^ 0xFF);
+            }
+            try (Journal journal = open(dir)) {
+                check(journal.getLastSequence() == 9, "last sequence before the torn record", journal.getLastSequence());
+                List<LedgerPosting> postings = journal.readAfter(0);
+                check(postings.size() == 9, "replayed postings before the torn record", postings.size());
+                check(postings.get(8).sequence == 9, "last replayed sequence", postings.get(8).sequence);
+                check(journal.getSegmentCount() == 1, "segments after tear", journal.getSegmentCount());
+            }
+            long quarantined;
+            try (Stream<Path> listing = Files.list(dir)) {
+                quarantined = listing.filter(path -> path.toString().endsWith(".corrupt")).count();
+            }
+            check(quarantined == 2, "segments moved aside", quarantined);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    static void releaseKeepsSegmentsAboveTheCheckpoint() throws IOException {
+        Path dir = Files.createTempDirectory("journal");
+        try {
+            try (Journal journal = open(dir)) {
+                appendTransfers(journal, 40);
+                journal.awaitDurable(40);
+                journal.release(20);
+                check(journal.getSegmentCount() == 2, "segments after release", journal.getSegmentCount());
+                check(segments(dir).size() == 2, "segment files after release", segments(dir).size());
+            }
+            try (Journal journal = open(dir)) {
+                List<LedgerPosting> postings = journal.readAfter(20);
+                check(postings.size() == 20 && postings.get(0).sequence == 21, "replay after release", postings.size());
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static Journal open(Path dir) throws IOException {
+        return new Journal(dir, SEGMENT_BYTES, 50);
+    }
+
+    private static void appendTransfers(Journal journal, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            long sequence = journal.getLastSequence() + 1;
+            journal.append(LedgerPosting.TRANSFER, sequence, sequence + 1000, sequence * 10);
+        }
+    }
+
+    private static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> listing = Files.list(dir)) {
+            return listing.filter(path -> path.toString().endsWith(".journal")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static void check(boolean condition, String what, Object actual) {
+        if (!condition) {
+            throw new AssertionError(what + " (got " + actual + ")");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package onlinebankingsystem;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+public class PooledTransferSessionTest {
+    private static final long OPENING_BALANCE = 1_000;
+    private static final long AMOUNT = 100;
+
+    public static void main(String[] args) throws Exception {
+        Properties props = DatabaseService.loadDatabaseProperties();
+        props.setProperty("db.pool.maxSize", "1");
+        props.setProperty("db.pool.minSize", "0");
+        try (ConnectionPool pool = new ConnectionPool(props.getProperty("db.URL"), props.getProperty("db.USER"),
+                props.getProperty("db.PASSWORD"), props)) {
+            try (Connection conn = pool.getConnection()) {
+                conn.isValid(2);
+            } catch (SQLException e) {
+                System.out.println("PooledTransferSessionTest skipped, no database: " + e.getMessage());
+                return;
+            }
+            invalidTransferDoesNotLeakIntoTheNextBorrower(pool);
+        } finally {
+            Log.shutdown();
+        }
+        System.out.println("PooledTransferSessionTest passed");
+    }
+
+    static void invalidTransferDoesNotLeakIntoTheNextBorrower(ConnectionPool pool) throws SQLException {
+        long customerId;
+        long from;
+        long to;
+        try (Connection conn = pool.getConnection()) {
+            customerId = insert(conn, "INSERT INTO customers (first_name, last_name, password) VALUES ('Pool', 'Session', 'x')");
+            from = insert(conn, "INSERT INTO account (customer_id, balance, status, type) VALUES (" + customerId + ", "
+                    + OPENING_BALANCE + ", 'ACTIVE', 'SAVINGS')");
+            to = insert(conn, "INSERT INTO account (customer_id, balance, status, type) VALUES (" + customerId + ", "
+                    + OPENING_BALANCE + ", 'ACTIVE', 'SAVINGS')");
+        }
+        try {
+            // The pool holds one connection, so all three calls share a server session.
+            transfer(pool, from, to);
+            boolean rejected = false;
+            try {
+                transfer(pool, from, Long.MAX_VALUE);
+            } catch (SQLException e) {
+                rejected = true;
+            }
+            check(rejected, "transfer to a missing account is rejected", false);
+            transfer(pool, from, to);
+
+            try (Connection conn = pool.getConnection()) {
+                check(balance(conn, from) == OPENING_BALANCE - 2 * AMOUNT, "source balance", balance(conn, from));
+                check(balance(conn, to) == OPENING_BALANCE + 2 * AMOUNT, "destination balance", balance(conn, to));
+            }
+        } finally {
+            try (Connection conn = pool.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM transactions WHERE fromID IN (" + from + ", " + to + ") OR toID IN (" + from + ", " + to + ")");
+                stmt.executeUpdate("DELETE FROM account WHERE customer_id = " + customerId);
+                stmt.executeUpdate("DELETE FROM customers WHERE id = " + customerId);
+            }
+        }
+    }
+
+    private static void transfer(ConnectionPool pool, long from, long to) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             CallableStatement cstmt = conn.prepareCall(SqlStatements.CALL_TRANSFER_FUNDS)) {
+            cstmt.setLong(1, from);
+            cstmt.setLong(2, to);
+            cstmt.setLong(3, AMOUNT);
+            cstmt.execute();
+        }
+    }
+
+    private static long insert(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql, Statement.RETURN_GENERATED_KEYS);
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    private static long balance(Connection conn, long accountId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT balance FROM account WHERE account_id = ?")) {
+            pstmt.setLong(1, accountId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static void check(boolean condition, String what, Object actual) {
+        if (!condition) {
+            throw new AssertionError(what + " (got " + actual + ")");
+        }
+    }
+}